@@ -3,6 +3,7 @@ module uk.ac.soton.comp1206 {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.media;
+    requires jdk.management;
     requires org.apache.logging.log4j;
     requires nv.websocket.client;
     opens uk.ac.soton.comp1206.ui to javafx.fxml;
@@ -13,4 +14,5 @@ module uk.ac.soton.comp1206 {
     exports uk.ac.soton.comp1206.event;
     exports uk.ac.soton.comp1206.component;
     exports uk.ac.soton.comp1206.game;
+    exports uk.ac.soton.comp1206.simulation;
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package uk.ac.soton.comp1206;
+
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.PieceSequence;
+import uk.ac.soton.comp1206.simulation.BatchSimulator;
+import uk.ac.soton.comp1206.simulation.Policy;
+import uk.ac.soton.comp1206.simulation.SimulationResults;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The Simulator plays a batch of games without a display, spread over every core, and prints the score, level and
+ * game length distributions as CSV or JSON. It is used to try out rule and balance changes.
+ * <p>
+ * Run it from the shaded jar with {@code java -cp tetrecs.jar uk.ac.soton.comp1206.Simulator [options]}:
+ * <pre>
+ *   --games N       number of games to play (default 1000)
+ *   --threads N     number of threads (default: every core)
+ *   --seed N        seed of the batch, the same seed gives the same results (default 0)
+ *   --policy NAME   random, greedy or the class name of a Policy (default greedy)
+ *   --cols N        columns of the board (default 5)
+ *   --rows N        rows of the board (default 5)
+ *   --noMove NAME   LOSE_LIFE or END_GAME (default LOSE_LIFE)
+ *   --maxMoves N    placements after which a game is stopped (default 10000)
+ *   --pieces NAME   uniform, bag or 15 comma separated weights (default uniform)
+ *   --lookahead N   pieces dealt in advance after the held pieces (default 3)
+ *   --thinkMs N     game time spent before every move, in milliseconds (default 1000)
+ *   --format NAME   csv or json (default csv)
+ *   --perGame       write every game instead of the summary
+ *   --out FILE      write to a file instead of standard output
+ * </pre>
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class Simulator {
+
+    /**
+     * Play the batch described by the commandline arguments
+     *
+     * @param args commandline arguments
+     */
+    public static void main(String[] args) {
+        // keep the per game logging of the engine quiet, unless another configuration was asked for
+        if (System.getProperty("log4j.configurationFile") == null) {
+            System.setProperty("log4j.configurationFile", "log4j2-simulator.xml");
+        }
+
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        String policy = "greedy";
+        int cols = 5;
+        int rows = 5;
+        GameEngine.NoMoveAction noMoveAction = GameEngine.NoMoveAction.LOSE_LIFE;
+        int maxMoves = 10_000;
+        String pieces = "uniform";
+        int lookahead = GameEngine.DEFAULT_LOOKAHEAD;
+        long thinkMillis = 1000;
+        String format = "csv";
+        boolean perGame = false;
+        Path out = null;
+        Policy chosenPolicy;
+        PieceSequence chosenPieces;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--games":
+                        games = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--policy":
+                        policy = args[++i];
+                        break;
+                    case "--cols":
+                        cols = Integer.parseInt(args[++i]);
+                        break;
+                    case "--rows":
+                        rows = Integer.parseInt(args[++i]);
+                        break;
+                    case "--noMove":
+                        noMoveAction = GameEngine.NoMoveAction.valueOf(args[++i]);
+                        break;
+                    case "--maxMoves":
+                        maxMoves = Integer.parseInt(args[++i]);
+                        break;
+                    case "--pieces":
+                        pieces = args[++i];
+                        break;
+                    case "--lookahead":
+                        lookahead = Integer.parseInt(args[++i]);
+                        break;
+                    case "--thinkMs":
+                        thinkMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--format":
+                        format = args[++i];
+                        break;
+                    case "--perGame":
+                        perGame = true;
+                        break;
+                    case "--out":
+                        out = Path.of(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (!format.equals("csv") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown format: " + format);
+            }
+            if (games < 0 || threads < 1 || cols < 1 || rows < 1 || maxMoves < 0 || lookahead < 1
+                    || thinkMillis < 0) {
+                throw new IllegalArgumentException("Counts and sizes must be positive");
+            }
+            chosenPolicy = Policy.forName(policy);
+            chosenPieces = PieceSequence.parse(pieces, seed);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            usage(System.err, "Missing value for " + args[args.length - 1]);
+            System.exit(2);
+            return;
+        } catch (IllegalArgumentException e) {
+            usage(System.err, e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        BatchSimulator simulator = new BatchSimulator(cols, rows, chosenPolicy);
+        simulator.setNoMoveAction(noMoveAction);
+        simulator.setMaxMoves(maxMoves);
+        simulator.setPieces(chosenPieces);
+        simulator.setLookahead(lookahead);
+        simulator.setThinkMillis(thinkMillis);
+
+        try {
+            SimulationResults results = simulator.run(games, threads, seed);
+            if (out == null) {
+                write(results, System.out, format, perGame);
+                System.out.flush();
+            } else {
+                try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                    write(results, writer, format, perGame);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write the results: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Write the results in the chosen format
+     *
+     * @param results the results
+     * @param out     where to write
+     * @param format  csv or json
+     * @param perGame true to write every game
+     * @throws IOException if writing fails
+     */
+    private static void write(SimulationResults results, Appendable out, String format, boolean perGame)
+            throws IOException {
+        if (format.equals("json")) {
+            results.writeJson(out, perGame);
+        } else {
+            results.writeCsv(out, perGame);
+        }
+    }
+
+    /**
+     * Print what went wrong and how to use the simulator
+     *
+     * @param out     where to print
+     * @param problem what went wrong
+     */
+    private static void usage(PrintStream out, String problem) {
+        out.println(problem);
+        out.println("Usage: Simulator [--games N] [--threads N] [--seed N] [--policy random|greedy|CLASS]"
+                + " [--cols N] [--rows N] [--noMove LOSE_LIFE|END_GAME] [--maxMoves N]"
+                + " [--pieces uniform|bag|WEIGHTS] [--lookahead N] [--thinkMs N] [--format csv|json]"
+                + " [--perGame] [--out FILE]");
+    }
+}
@@ -0,0 +1,228 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.geometry.Dimension2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.ui.DisplayScale;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BlockSprites holds a pre-rendered image of every way a block of one size can look, so painting a block is a single
+ * drawImage instead of a fill, an overlay and a border.
+ * <p>
+ * There is one set of sprites per block size, shared by every block of that size, and a sprite is rendered the first
+ * time it is needed. Sprites from {@link #forSize(double, double)} are rendered at the size of the block, for canvases
+ * the {@link uk.ac.soton.comp1206.ui.GamePane} scales up after they are drawn. Sprites from
+ * {@link #forScreen(double, double)} are rendered at the size the block takes up on screen, as given by the
+ * {@link DisplayScale}, for canvases that are themselves drawn at the resolution of the screen. When the scale changes
+ * those sprites are thrown away and rendered again at the new size the next time they are drawn.
+ * <p>
+ * Sprites are rendered with a snapshot, so they are only used on the FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class BlockSprites {
+
+    private static final Logger logger = LogManager.getLogger(BlockSprites.class);
+
+    /**
+     * The ways a block can look apart from its colour
+     */
+    public enum Variant {
+        /**
+         * A plain block
+         */
+        NORMAL,
+        /**
+         * A block under the mouse or the keyboard aim
+         */
+        HOVERED,
+        /**
+         * The centre block of a piece board, marked with a circle
+         */
+        INDICATOR
+    }
+
+    /**
+     * The light colour of an empty block
+     */
+    static final Color EMPTY = new Color(0.2, 0.2, 0.2, 0.2);
+
+    /**
+     * The highlight drawn over a hovered block and the colour of the indicator circle
+     */
+    static final Color HIGHLIGHT = new Color(1, 1, 1, 0.5);
+
+    /**
+     * The highlight drawn over the footprint of a piece that does not fit
+     */
+    static final Color BLOCKED = new Color(1, 0, 0, 0.35);
+
+    /**
+     * The sprites of every block size
+     */
+    private static final Map<Dimension2D, BlockSprites> SIZES = new HashMap<>();
+
+    /**
+     * The sprites of every block size rendered at the resolution of the screen
+     */
+    private static final Map<Dimension2D, BlockSprites> SCREEN_SIZES = new HashMap<>();
+
+    /**
+     * The width of a block
+     */
+    private final double width;
+
+    /**
+     * The height of a block
+     */
+    private final double height;
+
+    /**
+     * The sprites, by variant and value, rendered when first needed
+     */
+    private final Image[][] sprites = new Image[Variant.values().length][GameBlock.COLOURS.length];
+
+    /**
+     * Whether the sprites follow the display scale, rather than being rendered at the size of the block
+     */
+    private final boolean screenResolution;
+
+    /**
+     * The scale the sprites were rendered at
+     */
+    private double renderedScale;
+
+    /**
+     * The canvas sprites are rendered on, created with the first sprite
+     */
+    private Canvas canvas;
+
+    /**
+     * Create the sprites of one block size
+     *
+     * @param width            the width of a block
+     * @param height           the height of a block
+     * @param screenResolution true to render at the size the block takes up on screen
+     */
+    private BlockSprites(double width, double height, boolean screenResolution) {
+        this.width = width;
+        this.height = height;
+        this.screenResolution = screenResolution;
+        this.renderedScale = screenResolution ? DisplayScale.getScale() : 1;
+    }
+
+    /**
+     * Get the shared sprites of a block size, rendered at the size of the block
+     *
+     * @param width  the width of a block
+     * @param height the height of a block
+     * @return the sprites
+     */
+    public static BlockSprites forSize(double width, double height) {
+        return SIZES.computeIfAbsent(new Dimension2D(width, height), size -> new BlockSprites(width, height, false));
+    }
+
+    /**
+     * Get the shared sprites of a block size, rendered at the size the block takes up on screen
+     *
+     * @param width  the width of a block
+     * @param height the height of a block
+     * @return the sprites
+     */
+    public static BlockSprites forScreen(double width, double height) {
+        return SCREEN_SIZES.computeIfAbsent(new Dimension2D(width, height),
+                size -> new BlockSprites(width, height, true));
+    }
+
+    /**
+     * Get the sprite of a block
+     *
+     * @param value   the value of the block, 0 for empty
+     * @param variant how the block looks apart from its colour
+     * @return the sprite, to be drawn at the size of the block
+     */
+    public Image get(int value, Variant variant) {
+        double scale = screenResolution ? DisplayScale.getScale() : 1;
+        if (renderedScale != scale) {
+            // the blocks take up a different number of pixels now
+            logger.debug("Block sprites of {} x {} now rendered at scale {}", width, height, scale);
+            for (Image[] row : sprites) {
+                Arrays.fill(row, null);
+            }
+            canvas = null;
+            renderedScale = scale;
+        }
+        Image sprite = sprites[variant.ordinal()][value];
+        if (sprite == null) {
+            sprite = render(value, variant);
+            sprites[variant.ordinal()][value] = sprite;
+        }
+        return sprite;
+    }
+
+    /**
+     * Draw a block on a graphics context
+     *
+     * @param gc      the graphics context
+     * @param value   the value of the block, 0 for empty
+     * @param variant how the block looks apart from its colour
+     * @param x       the left edge of the block
+     * @param y       the top edge of the block
+     */
+    public void draw(GraphicsContext gc, int value, Variant variant, double x, double y) {
+        gc.drawImage(get(value, variant), x, y, width, height);
+    }
+
+    /**
+     * Render a sprite the same way a GameBlock paints itself
+     *
+     * @param value   the value of the block, 0 for empty
+     * @param variant how the block looks apart from its colour
+     * @return the sprite
+     */
+    private Image render(int value, Variant variant) {
+        if (canvas == null) {
+            canvas = new Canvas(Math.ceil(width * renderedScale), Math.ceil(height * renderedScale));
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setTransform(renderedScale, 0, 0, renderedScale, 0, 0);
+        gc.clearRect(0, 0, width, height);
+
+        //Fill
+        gc.setFill(value == 0 ? EMPTY : GameBlock.COLOURS[value]);
+        gc.fillRect(0, 0, width, height);
+
+        if (variant == Variant.HOVERED) {
+            gc.setFill(HIGHLIGHT);
+            gc.fillRect(0, 0, width, height);
+        }
+
+        //Border, thicker around a filled block
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(value == 0 ? 1 : 3);
+        gc.strokeRect(0, 0, width, height);
+
+        if (variant == Variant.INDICATOR) {
+            double radius = Math.min(width, height) / 3;
+            gc.setFill(HIGHLIGHT);
+            gc.fillOval((width / 2) - radius, (height / 2) - radius, radius * 2, radius * 2);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        WritableImage sprite = canvas.snapshot(parameters, null);
+        logger.trace("Rendered sprite {} {} at {} x {}", value, variant, sprite.getWidth(), sprite.getHeight());
+        return sprite;
+    }
+}
@@ -0,0 +1,25 @@
+package uk.ac.soton.comp1206.component;
+
+/**
+ * A BoardBlock is a block of a board, known by its column and row. On a GameBoard it is the GameBlock itself, on a
+ * board that does not create a GameBlock for every block it is the {@link GameBlockCoordinate} of the block.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public interface BoardBlock {
+
+    /**
+     * Get the column of this block
+     *
+     * @return column number
+     */
+    int getX();
+
+    /**
+     * Get the row of this block
+     *
+     * @return row number
+     */
+    int getY();
+}
@@ -0,0 +1,77 @@
+package uk.ac.soton.comp1206.component;
+
+import uk.ac.soton.comp1206.event.BlockClickedListener;
+import uk.ac.soton.comp1206.event.RightClickedListener;
+import uk.ac.soton.comp1206.game.ClearMask;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GamePiece;
+
+/**
+ * A BoardView is a visual component showing the grid of a game that the player plays on: the {@link GameBoard} with a
+ * GameBlock for every block, or the single canvas {@link BoardViewport}. A scene uses either one the same way.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public interface BoardView {
+
+    /**
+     * Get a specific block, specified by its column and row
+     *
+     * @param x column
+     * @param y row
+     * @return the block
+     */
+    BoardBlock getBlock(int x, int y);
+
+    /**
+     * Starts fade-out animations for the blocks of the cleared lines
+     *
+     * @param clearMask the rows and columns that were cleared
+     */
+    void fadeOut(ClearMask clearMask);
+
+    /**
+     * Set the listener to handle an event when a block is clicked
+     *
+     * @param listener listener to add
+     */
+    void setOnBlockClick(BlockClickedListener listener);
+
+    /**
+     * Set the listener to handle an event when a block is right clicked
+     *
+     * @param listener listener to add
+     */
+    void setRightClickedListener(RightClickedListener listener);
+
+    /**
+     * Set the clock the block animations are timed on, usually the clock of the game
+     *
+     * @param clock the clock
+     */
+    void setClock(GameClock clock);
+
+    /**
+     * Get the clock the block animations are timed on
+     *
+     * @return the clock
+     */
+    GameClock getClock();
+
+    /**
+     * Highlight the given block, for example the block aimed at with the keyboard, removing the highlight from the
+     * previous one
+     *
+     * @param x column, or -1 for none
+     * @param y row, or -1 for none
+     */
+    void setHover(int x, int y);
+
+    /**
+     * Show the footprint of a piece around the hovered block instead of just the block, tinted by whether it fits
+     *
+     * @param piece the piece that would be placed, or null to only highlight the hovered block
+     */
+    void setPreviewPiece(GamePiece piece);
+}
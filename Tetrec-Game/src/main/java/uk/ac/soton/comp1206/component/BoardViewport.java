@@ -0,0 +1,677 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.event.BlockClickedListener;
+import uk.ac.soton.comp1206.event.RightClickedListener;
+import uk.ac.soton.comp1206.game.BlockVisitor;
+import uk.ac.soton.comp1206.game.ClearMask;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.PieceShapes;
+import uk.ac.soton.comp1206.ui.Diagnostics;
+import uk.ac.soton.comp1206.ui.DisplayScale;
+
+/**
+ * A BoardViewport is a visual component that shows a window onto a grid of any size on a single canvas.
+ * <p>
+ * Unlike the GameBoard it does not create a GameBlock for every block, so it is used for large boards, and as a single
+ * canvas replacement for the GameBoard on boards of any size. Only the blocks inside the viewport are drawn, and once
+ * per pulse only the blocks the grid reports as changed and the blocks the hover left or moved to are repainted. The
+ * hover shows the footprint of the piece that would be placed, tinted red when it does not fit. Cleared blocks fade
+ * out through the shared {@link EffectScheduler}. The viewport can be moved with the mouse wheel (hold shift to scroll
+ * sideways) or by keeping an aimed block visible.
+ * <p>
+ * It is a {@link BoardView} like the GameBoard, so a scene uses either one the same way. The blocks it hands out, to
+ * {@link #getBlock(int, int)} and the click listener, are the coordinates of the blocks instead of a GameBlock.
+ * <p>
+ * In crisp mode ({@link DisplayScale#isCrisp()}) the canvas holds a pixel for every pixel the viewport covers on
+ * screen and is shrunk back to its place, so the board is drawn at the resolution of the screen rather than drawn
+ * small and scaled up.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class BoardViewport extends Pane implements BoardView, EffectPainter {
+
+    private static final Logger logger = LogManager.getLogger(BoardViewport.class);
+
+    /**
+     * The smallest size a block is drawn at, in pixels
+     */
+    private static final double MIN_BLOCK_SIZE = 20;
+
+    /**
+     * The footprint of a single block, the centre of a piece
+     */
+    private static final int CENTRE = 1 << (PieceShapes.SIZE + 1);
+
+
+    /**
+     * The grid this viewport shows
+     */
+    private final Grid grid;
+
+    /**
+     * The canvas the blocks are drawn on
+     */
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * Shrinks the canvas back to the size of the viewport when it is drawn at a higher resolution
+     */
+    private final Scale canvasScale = new Scale(1, 1, 0, 0);
+
+    /**
+     * The width of the viewport
+     */
+    private final double viewWidth;
+
+    /**
+     * The height of the viewport
+     */
+    private final double viewHeight;
+
+    /**
+     * The number of canvas pixels for every pixel of the viewport
+     */
+    private double renderScale = 1;
+
+    /**
+     * Resizes the canvas when the game is scaled, in crisp mode
+     */
+    private final ChangeListener<Number> scaleChanged = (observable, oldScale, newScale) -> applyRenderScale();
+
+    /**
+     * The size of a single block in pixels
+     */
+    private final double blockSize;
+
+    /**
+     * The pre-rendered looks of a block
+     */
+    private final BlockSprites sprites;
+
+    /**
+     * The number of columns that fit in the viewport
+     */
+    private final int visibleCols;
+
+    /**
+     * The number of rows that fit in the viewport
+     */
+    private final int visibleRows;
+
+    /**
+     * The column shown at the left edge of the viewport
+     */
+    private int viewX;
+
+    /**
+     * The row shown at the top edge of the viewport
+     */
+    private int viewY;
+
+    /**
+     * The hovered column, or -1 when nothing is hovered
+     */
+    private int hoverX = -1;
+
+    /**
+     * The hovered row, or -1 when nothing is hovered
+     */
+    private int hoverY = -1;
+
+    /**
+     * The piece whose footprint is shown around the hovered block, or null to highlight a single block
+     */
+    private GamePiece previewPiece;
+
+    /**
+     * The blocks of the footprint, a bit for every block of the piece by row and then column
+     */
+    private int previewMask = CENTRE;
+
+    /**
+     * The footprint that was last painted
+     */
+    private int paintedMask = CENTRE;
+
+    /**
+     * Whether the footprint that was last painted fits
+     */
+    private boolean paintedFits = true;
+
+    /**
+     * The column the hover was last painted at, or -1
+     */
+    private int paintedHoverX = -1;
+
+    /**
+     * The row the hover was last painted at, or -1
+     */
+    private int paintedHoverY = -1;
+
+    /**
+     * The clock the fades are timed on
+     */
+    private GameClock clock = GameClock.realTime();
+
+    /**
+     * Set when the whole viewport has to be painted on the next frame
+     */
+    private boolean fullRepaint = true;
+
+    /**
+     * The listener to call when a block is clicked
+     */
+    private BlockClickedListener blockClickedListener;
+
+    /**
+     * The listener to call when a block is right clicked
+     */
+    private RightClickedListener rightClickedListener;
+
+    /**
+     * The visitor used to repaint every changed block
+     */
+    private final BlockVisitor paintChanged = this::paintIfVisible;
+
+    /**
+     * The visitor used to start fading every cleared block
+     */
+    private final BlockVisitor startFade = this::startFade;
+
+    /**
+     * Set while the renderer is running
+     */
+    private boolean rendering;
+
+    /**
+     * Repaints the viewport once per frame while it is showing
+     */
+    private final AnimationTimer renderer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            render();
+        }
+    };
+
+    /**
+     * Create a new BoardViewport showing the given grid, with a visual width and height
+     *
+     * @param grid   linked grid
+     * @param width  the visual width
+     * @param height the visual height
+     */
+    public BoardViewport(Grid grid, double width, double height) {
+        this.grid = grid;
+
+        // blocks fill the viewport when the grid is small enough, and are never drawn smaller than the minimum size
+        this.blockSize = Math.max(MIN_BLOCK_SIZE, Math.min(width / grid.getCols(), height / grid.getRows()));
+        this.visibleCols = Math.min(grid.getCols(), (int) (width / blockSize));
+        this.visibleRows = Math.min(grid.getRows(), (int) (height / blockSize));
+        // only a crisp canvas has the pixels to show sprites rendered at the resolution of the screen
+        this.sprites = DisplayScale.isCrisp() ? BlockSprites.forScreen(blockSize, blockSize)
+                : BlockSprites.forSize(blockSize, blockSize);
+
+        //A canvas needs a fixed width and height, the viewport takes up the same
+        this.viewWidth = visibleCols * blockSize;
+        this.viewHeight = visibleRows * blockSize;
+        setPrefSize(viewWidth, viewHeight);
+        setMinSize(viewWidth, viewHeight);
+        setMaxSize(viewWidth, viewHeight);
+        canvas.getTransforms().add(canvasScale);
+        getChildren().add(canvas);
+        applyRenderScale();
+
+        grid.enableDirtyTracking();
+        logger.info("Viewport of {} x {} blocks onto a {} x {} grid", visibleCols, visibleRows,
+                grid.getCols(), grid.getRows());
+
+        setOnMouseClicked(this::mouseClicked);
+        setOnMouseMoved(e -> setHover(toColumn(e.getX()), toRow(e.getY())));
+        setOnMouseExited(e -> setHover(-1, -1));
+        setOnScroll(this::scrolled);
+
+        // only render while the viewport is part of a scene
+        sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) {
+                if (DisplayScale.isCrisp()) {
+                    DisplayScale.scaleProperty().addListener(scaleChanged);
+                    applyRenderScale();
+                }
+                fullRepaint = true;
+                if (!rendering) {
+                    rendering = true;
+                    renderer.start();
+                    Diagnostics.timerStarted();
+                }
+            } else {
+                DisplayScale.scaleProperty().removeListener(scaleChanged);
+                if (rendering) {
+                    rendering = false;
+                    renderer.stop();
+                    Diagnostics.timerStopped();
+                }
+            }
+        });
+    }
+
+    /**
+     * Set the listener to handle an event when a block is clicked
+     *
+     * @param listener listener to add
+     */
+    @Override
+    public void setOnBlockClick(BlockClickedListener listener) {
+        this.blockClickedListener = listener;
+    }
+
+    /**
+     * Set the listner to handle an event when right click is occurred
+     *
+     * @param listener listner to add
+     */
+    @Override
+    public void setRightClickedListener(RightClickedListener listener) {
+        this.rightClickedListener = listener;
+    }
+
+    /**
+     * Set the clock the fades are timed on, usually the clock of the game
+     *
+     * @param clock the clock
+     */
+    @Override
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Get the clock the fades are timed on
+     *
+     * @return the clock
+     */
+    @Override
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Get a specific block, specified by its column and row
+     *
+     * @param x column
+     * @param y row
+     * @return the coordinate of the block
+     */
+    @Override
+    public GameBlockCoordinate getBlock(int x, int y) {
+        return new GameBlockCoordinate(x, y);
+    }
+
+    /**
+     * Starts fade-out animations for the blocks of the cleared lines, the same flash and fade a GameBlock shows, run
+     * by the shared {@link EffectScheduler}
+     *
+     * @param clearMask the rows and columns that were cleared
+     */
+    @Override
+    public void fadeOut(ClearMask clearMask) {
+        logger.info("Fading out {} blocks", clearMask.getBlockCount());
+        clearMask.forEachBlock(startFade);
+    }
+
+    /**
+     * Move the viewport so its top left block is at the given column and row, kept inside the grid
+     *
+     * @param x column
+     * @param y row
+     */
+    public void scrollTo(int x, int y) {
+        x = Math.max(0, Math.min(x, grid.getCols() - visibleCols));
+        y = Math.max(0, Math.min(y, grid.getRows() - visibleRows));
+        if (x != viewX || y != viewY) {
+            viewX = x;
+            viewY = y;
+            fullRepaint = true;
+        }
+    }
+
+    /**
+     * Move the viewport as little as possible so the given block is visible
+     *
+     * @param x column
+     * @param y row
+     */
+    public void ensureVisible(int x, int y) {
+        int newX = viewX;
+        int newY = viewY;
+        if (x < viewX) {
+            newX = x;
+        } else if (x >= viewX + visibleCols) {
+            newX = x - visibleCols + 1;
+        }
+        if (y < viewY) {
+            newY = y;
+        } else if (y >= viewY + visibleRows) {
+            newY = y - visibleRows + 1;
+        }
+        scrollTo(newX, newY);
+    }
+
+    /**
+     * Highlight the given block, removing the highlight from the previous one, and move the viewport to keep it in
+     * view
+     *
+     * @param x column, or -1 for none
+     * @param y row, or -1 for none
+     */
+    @Override
+    public void setHover(int x, int y) {
+        if (x >= 0 && y >= 0) {
+            // keep a block aimed at with the keyboard in view on a large board
+            ensureVisible(x, y);
+        }
+        // painted on the next pulse, however often the hover moves until then
+        hoverX = x;
+        hoverY = y;
+    }
+
+    /**
+     * Show the footprint of a piece around the hovered block instead of just the block, tinted by whether it fits
+     *
+     * @param piece the piece that would be placed, or null to only highlight the hovered block
+     */
+    @Override
+    public void setPreviewPiece(GamePiece piece) {
+        // the piece can be rotated later on, so the footprint keeps the shape it has now
+        if (piece == null) {
+            previewPiece = null;
+            previewMask = CENTRE;
+            return;
+        }
+        previewPiece = GamePiece.createPiece(piece.getPieceNumber(), piece.getRotation());
+        int mask = 0;
+        for (int blockY = 0; blockY < PieceShapes.SIZE; blockY++) {
+            mask |= previewPiece.getRowMask(blockY) << (blockY * PieceShapes.SIZE);
+        }
+        previewMask = mask;
+    }
+
+    /**
+     * Start fading a block
+     *
+     * @param x column
+     * @param y row
+     */
+    private void startFade(int x, int y) {
+        EffectScheduler.getShared().start(EffectScheduler.FADE_OUT, this, clock, x, y);
+    }
+
+    /**
+     * Paint the changes since the last frame
+     */
+    private void render() {
+        if (fullRepaint) {
+            // everything is painted anyway, so the changes are only thrown away
+            grid.drainDirty(paintChanged);
+            paintAll();
+        } else if (!grid.drainDirty(paintChanged)) {
+            paintAll();
+        } else {
+            boolean fits = previewFits();
+            if (hoverX != paintedHoverX || hoverY != paintedHoverY || previewMask != paintedMask
+                    || fits != paintedFits) {
+                // repaint the footprint the hover left, then the footprint it moved to
+                int oldX = paintedHoverX;
+                int oldY = paintedHoverY;
+                int oldMask = paintedMask;
+                paintedHoverX = hoverX;
+                paintedHoverY = hoverY;
+                paintedMask = previewMask;
+                paintedFits = fits;
+                paintFootprint(oldX, oldY, oldMask);
+                paintFootprint(hoverX, hoverY, previewMask);
+            }
+        }
+    }
+
+    /**
+     * Check whether the previewed piece fits at the hovered block. A single highlighted block always fits.
+     *
+     * @return true if the footprint is shown as fitting
+     */
+    private boolean previewFits() {
+        return previewPiece == null || hoverX < 0 || hoverY < 0 || grid.canPlayPiece(previewPiece, hoverX, hoverY);
+    }
+
+    /**
+     * Repaint every block of a footprint
+     *
+     * @param centreX the column the footprint is centred on, or -1 for none
+     * @param centreY the row the footprint is centred on, or -1 for none
+     * @param mask    the blocks of the footprint
+     */
+    private void paintFootprint(int centreX, int centreY, int mask) {
+        if (centreX < 0 || centreY < 0) {
+            return;
+        }
+        for (int block = 0; block < PieceShapes.SIZE * PieceShapes.SIZE; block++) {
+            if ((mask & (1 << block)) != 0) {
+                // the piece is centred on the hovered block
+                paintIfVisible(centreX + block % PieceShapes.SIZE - 1, centreY + block / PieceShapes.SIZE - 1);
+            }
+        }
+    }
+
+    /**
+     * Check whether a block is in the footprint that is painted
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block is highlighted
+     */
+    private boolean inFootprint(int x, int y) {
+        int blockX = x - paintedHoverX + 1;
+        int blockY = y - paintedHoverY + 1;
+        if (paintedHoverX < 0 || paintedHoverY < 0 || blockX < 0 || blockY < 0
+                || blockX >= PieceShapes.SIZE || blockY >= PieceShapes.SIZE) {
+            return false;
+        }
+        return (paintedMask & (1 << (blockY * PieceShapes.SIZE + blockX))) != 0;
+    }
+
+    /**
+     * Size the canvas for the current scale. Outside crisp mode the canvas always matches the viewport.
+     */
+    private void applyRenderScale() {
+        double scale = DisplayScale.isCrisp() ? DisplayScale.getScale() : 1;
+        if (scale == renderScale && canvas.getWidth() > 0) {
+            return;
+        }
+        renderScale = scale;
+        canvas.setWidth(Math.ceil(viewWidth * scale));
+        canvas.setHeight(Math.ceil(viewHeight * scale));
+        canvasScale.setX(1 / scale);
+        canvasScale.setY(1 / scale);
+        // everything is still drawn in viewport coordinates
+        canvas.getGraphicsContext2D().setTransform(scale, 0, 0, scale, 0, 0);
+        fullRepaint = true;
+        logger.debug("Viewport canvas drawn at scale {}", scale);
+    }
+
+    /**
+     * Paint every block inside the viewport
+     */
+    private void paintAll() {
+        fullRepaint = false;
+        paintedHoverX = hoverX;
+        paintedHoverY = hoverY;
+        paintedMask = previewMask;
+        paintedFits = previewFits();
+        canvas.getGraphicsContext2D().clearRect(0, 0, viewWidth, viewHeight);
+        for (int y = viewY; y < viewY + visibleRows; y++) {
+            for (int x = viewX; x < viewX + visibleCols; x++) {
+                drawBlock(x, y);
+            }
+        }
+    }
+
+    /**
+     * Paint a single block if it is inside the viewport
+     *
+     * @param x column
+     * @param y row
+     */
+    private void paintIfVisible(int x, int y) {
+        if (isVisible(x, y)) {
+            drawBlock(x, y);
+        }
+    }
+
+    /**
+     * Check whether a block is inside the viewport
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block is shown
+     */
+    private boolean isVisible(int x, int y) {
+        return x >= viewX && x < viewX + visibleCols && y >= viewY && y < viewY + visibleRows;
+    }
+
+    /**
+     * Paint a single block the same way a GameBlock paints itself
+     *
+     * @param x column
+     * @param y row
+     */
+    private void drawBlock(int x, int y) {
+        Diagnostics.countPaint();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double left = (x - viewX) * blockSize;
+        double top = (y - viewY) * blockSize;
+        boolean highlighted = inFootprint(x, y);
+
+        //Clear, then the sprite holds the fill, highlight and border
+        gc.clearRect(left, top, blockSize, blockSize);
+        if (highlighted && !paintedFits) {
+            // a footprint that does not fit is tinted instead of highlighted
+            sprites.draw(gc, grid.get(x, y), BlockSprites.Variant.NORMAL, left, top);
+            gc.setFill(BlockSprites.BLOCKED);
+            gc.fillRect(left, top, blockSize, blockSize);
+            return;
+        }
+        BlockSprites.Variant variant = highlighted ? BlockSprites.Variant.HOVERED : BlockSprites.Variant.NORMAL;
+        sprites.draw(gc, grid.get(x, y), variant, left, top);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean paintEffect(int x, int y, Color colour) {
+        if (grid.get(x, y) != 0) {
+            // a piece was placed on the block, which has already been repainted
+            return false;
+        }
+        if (!isVisible(x, y)) {
+            return true;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double left = (x - viewX) * blockSize;
+        double top = (y - viewY) * blockSize;
+
+        gc.clearRect(left, top, blockSize, blockSize);
+        gc.setFill(colour);
+        gc.fillRect(left, top, blockSize, blockSize);
+        paintBorder(gc, left, top, 3);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void paintBlock(int x, int y) {
+        paintIfVisible(x, y);
+    }
+
+    /**
+     * Paint the border of a block. A GameBlock strokes its own edge and only the inner half of the line shows, so the
+     * border is drawn as that inner half to keep it from spilling onto the next block.
+     *
+     * @param gc    the graphics context
+     * @param left  the left edge of the block
+     * @param top   the top edge of the block
+     * @param width the width of the line a GameBlock would stroke
+     */
+    private void paintBorder(GraphicsContext gc, double left, double top, double width) {
+        double inner = width / 2;
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(inner);
+        gc.strokeRect(left + inner / 2, top + inner / 2, blockSize - inner, blockSize - inner);
+    }
+
+    /**
+     * Get the column under a horizontal position on the canvas
+     *
+     * @param position the x position in pixels
+     * @return the column
+     */
+    private int toColumn(double position) {
+        return Math.min(viewX + (int) (position / blockSize), grid.getCols() - 1);
+    }
+
+    /**
+     * Get the row under a vertical position on the canvas
+     *
+     * @param position the y position in pixels
+     * @return the row
+     */
+    private int toRow(double position) {
+        return Math.min(viewY + (int) (position / blockSize), grid.getRows() - 1);
+    }
+
+    /**
+     * Triggered when the viewport is clicked. Call the attached listener with the block under the mouse.
+     *
+     * @param event mouse event
+     */
+    private void mouseClicked(MouseEvent event) {
+        int x = toColumn(event.getX());
+        int y = toRow(event.getY());
+        if (event.getButton() == MouseButton.PRIMARY && blockClickedListener != null) {
+            blockClickedListener.blockClicked(getBlock(x, y));
+        }
+        if (event.getButton() == MouseButton.SECONDARY && rightClickedListener != null) {
+            rightClickedListener.rightClick(x, y);
+        }
+    }
+
+    /**
+     * Scroll the viewport by a block per wheel step, sideways when shift is held
+     *
+     * @param event scroll event
+     */
+    private void scrolled(ScrollEvent event) {
+        int steps = event.getDeltaY() > 0 ? -1 : event.getDeltaY() < 0 ? 1 : 0;
+        if (event.isShiftDown()) {
+            scrollTo(viewX + steps, viewY);
+        } else {
+            scrollTo(viewX, viewY + steps);
+        }
+    }
+}
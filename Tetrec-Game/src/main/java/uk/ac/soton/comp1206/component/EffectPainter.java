@@ -0,0 +1,31 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.paint.Color;
+
+/**
+ * An EffectPainter is a board that can show the effects run by the {@link EffectScheduler} on its blocks.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public interface EffectPainter {
+
+    /**
+     * Paint a block in the colour of the current stage of an effect
+     *
+     * @param x      column
+     * @param y      row
+     * @param colour the colour
+     * @return true if the block showed the effect, or false if it can no longer show it, for example because a piece
+     * was placed on it, which ends the effect
+     */
+    boolean paintEffect(int x, int y, Color colour);
+
+    /**
+     * Paint a block the normal way once its effect has finished
+     *
+     * @param x column
+     * @param y row
+     */
+    void paintBlock(int x, int y);
+}
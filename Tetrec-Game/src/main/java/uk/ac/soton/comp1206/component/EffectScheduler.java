@@ -0,0 +1,253 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.ui.Diagnostics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The EffectScheduler runs every block effect of the game, such as the flash and fade of a cleared line, from a single
+ * AnimationTimer.
+ * <p>
+ * Every running effect is a small record of the effect, the board, the block and the start time. Records are taken
+ * from a pool and returned to it when the effect ends, so starting an effect does not allocate once the pool has
+ * grown to the busiest moment of the game. On every pulse each running effect paints its current stage. The timer only
+ * runs while there is an effect to advance and stops itself as soon as the last one ends.
+ * <p>
+ * Effects are started and advanced on the FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class EffectScheduler {
+
+    private static final Logger logger = LogManager.getLogger(EffectScheduler.class);
+
+    /**
+     * An effect that can be shown on a block
+     */
+    @FunctionalInterface
+    public interface Effect {
+
+        /**
+         * Show the effect at its current stage
+         *
+         * @param painter      the board the block is on
+         * @param x            column
+         * @param y            row
+         * @param elapsedNanos the time since the effect started
+         * @return true while the effect is still running
+         */
+        boolean advance(EffectPainter painter, int x, int y, long elapsedNanos);
+    }
+
+    /**
+     * How long a cleared block flashes, in nanoseconds
+     */
+    private static final long FLASH_NANOS = 200_000_000L;
+
+    /**
+     * How long after being cleared a block has faded away completely, in nanoseconds
+     */
+    private static final long FADE_NANOS = 2_000_000_000L;
+
+    /**
+     * The colour a cleared block flashes before it fades
+     */
+    private static final Color FLASH = Color.GREEN.brighter();
+
+    /**
+     * The colours of the fade from opaque to transparent green, so a frame does not create a colour
+     */
+    private static final Color[] FADE = new Color[64];
+
+    static {
+        for (int step = 0; step < FADE.length; step++) {
+            FADE[step] = Color.color(0, 1, 0, 1 - (double) step / FADE.length);
+        }
+    }
+
+    /**
+     * The block flashes green and then fades away
+     */
+    public static final Effect FADE_OUT = (painter, x, y, elapsedNanos) -> {
+        if (elapsedNanos > FADE_NANOS) {
+            return false;
+        }
+        if (elapsedNanos <= FLASH_NANOS) {
+            return painter.paintEffect(x, y, FLASH);
+        }
+        // the green becomes more transparent as time goes on
+        int step = (int) ((elapsedNanos - FLASH_NANOS) * FADE.length / (FADE_NANOS - FLASH_NANOS));
+        return painter.paintEffect(x, y, FADE[Math.min(step, FADE.length - 1)]);
+    };
+
+    /**
+     * The scheduler shared by every board, created on first use
+     */
+    private static EffectScheduler shared;
+
+    /**
+     * A running effect
+     */
+    private static final class Running {
+
+        /**
+         * The effect
+         */
+        Effect effect;
+
+        /**
+         * The board the block is on
+         */
+        EffectPainter painter;
+
+        /**
+         * The clock the effect is timed on
+         */
+        GameClock clock;
+
+        /**
+         * The column of the block
+         */
+        int x;
+
+        /**
+         * The row of the block
+         */
+        int y;
+
+        /**
+         * The time the effect started on its clock
+         */
+        long start;
+    }
+
+    /**
+     * The running effects, in the order they were started
+     */
+    private final List<Running> running = new ArrayList<>();
+
+    /**
+     * The records of finished effects, ready for reuse
+     */
+    private final ArrayDeque<Running> pool = new ArrayDeque<>();
+
+    /**
+     * Set while the timer is running
+     */
+    private boolean active;
+
+    /**
+     * Advances every running effect once per pulse while there are any
+     */
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            advance();
+        }
+    };
+
+    /**
+     * Create a new scheduler. Boards use the shared one.
+     */
+    private EffectScheduler() {
+    }
+
+    /**
+     * Get the scheduler shared by every board
+     *
+     * @return the scheduler
+     */
+    public static EffectScheduler getShared() {
+        if (shared == null) {
+            shared = new EffectScheduler();
+        }
+        return shared;
+    }
+
+    /**
+     * Start an effect on a block
+     *
+     * @param effect  the effect
+     * @param painter the board the block is on
+     * @param clock   the clock the effect is timed on
+     * @param x       column
+     * @param y       row
+     */
+    public void start(Effect effect, EffectPainter painter, GameClock clock, int x, int y) {
+        Running record = pool.poll();
+        if (record == null) {
+            record = new Running();
+        }
+        record.effect = effect;
+        record.painter = painter;
+        record.clock = clock;
+        record.x = x;
+        record.y = y;
+        record.start = clock.nanoTime();
+        running.add(record);
+
+        if (!active) {
+            active = true;
+            timer.start();
+            Diagnostics.timerStarted();
+            logger.trace("Effect timer started");
+        }
+    }
+
+    /**
+     * Get the number of effects running
+     *
+     * @return the number of effects
+     */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * Advance every running effect and return the finished ones to the pool
+     */
+    private void advance() {
+        int kept = 0;
+        for (int i = 0; i < running.size(); i++) {
+            Running record = running.get(i);
+            long elapsed = record.clock.nanoTime() - record.start;
+            if (record.effect.advance(record.painter, record.x, record.y, elapsed)) {
+                running.set(kept++, record);
+            } else {
+                finish(record);
+            }
+        }
+        // drop the finished records from the end, keeping the order of the rest
+        while (running.size() > kept) {
+            running.remove(running.size() - 1);
+        }
+
+        if (running.isEmpty()) {
+            active = false;
+            timer.stop();
+            Diagnostics.timerStopped();
+            logger.trace("Effect timer stopped, nothing left to animate");
+        }
+    }
+
+    /**
+     * End an effect, paint its block the normal way and return its record to the pool
+     *
+     * @param record the record of the effect
+     */
+    private void finish(Running record) {
+        record.painter.paintBlock(record.x, record.y);
+        record.effect = null;
+        record.painter = null;
+        record.clock = null;
+        pool.push(record);
+    }
+}
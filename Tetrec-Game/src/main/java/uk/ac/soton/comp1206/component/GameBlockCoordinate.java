@@ -10,7 +10,7 @@ import javafx.beans.NamedArg;
  * @author abdullamaghrabi
  * @version $Id: $Id
  */
-public class GameBlockCoordinate {
+public class GameBlockCoordinate implements BoardBlock {
 
     /**
      * Represents the column
@@ -44,6 +44,7 @@ public class GameBlockCoordinate {
      *
      * @return column number
      */
+    @Override
     public int getX() {
         return x;
     }
@@ -53,6 +54,7 @@ public class GameBlockCoordinate {
      *
      * @return the row number
      */
+    @Override
     public int getY() {
         return y;
     }
@@ -4,14 +4,19 @@ import javafx.animation.AnimationTimer;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.event.BlockClickedListener;
 import uk.ac.soton.comp1206.event.LineClearedListener;
 import uk.ac.soton.comp1206.event.RightClickedListener;
+import uk.ac.soton.comp1206.game.BlockVisitor;
+import uk.ac.soton.comp1206.game.ClearMask;
 import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GameClock;
 import uk.ac.soton.comp1206.game.GamePiece;
 import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.GridProperties;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -29,7 +34,7 @@ import java.util.Set;
  * @author abdullamaghrabi
  * @version $Id: $Id
  */
-public class GameBoard extends GridPane {
+public class GameBoard extends GridPane implements BoardView, EffectPainter {
 
     /**
      * An instance of the Game class
@@ -75,6 +80,11 @@ public class GameBoard extends GridPane {
      */
     final Grid grid;
 
+    /**
+     * The property view of the grid the blocks are bound to
+     */
+    private final GridProperties properties;
+
     /**
      * The blocks inside the grid
      */
@@ -90,6 +100,21 @@ public class GameBoard extends GridPane {
      */
     private final Set<LineClearedListener> lineClearedListeners = new HashSet<>();
 
+    /**
+     * The visitor used to fade every cleared block, kept so fading does not create a new one each time
+     */
+    private final BlockVisitor fadeBlock = this::fadeBlock;
+
+    /**
+     * The clock the block animations are timed on
+     */
+    private GameClock clock = GameClock.realTime();
+
+    /**
+     * The layer showing the hover and the footprint of the next piece, created on the first hover
+     */
+    private HoverOverlay overlay;
+
 
     /**
      * Create a new GameBoard, based off a given grid, with a visual width and height.
@@ -104,6 +129,7 @@ public class GameBoard extends GridPane {
         this.width = width;
         this.height = height;
         this.grid = grid;
+        this.properties = new GridProperties(grid);
 
         //Build the GameBoard
         build();
@@ -117,6 +143,7 @@ public class GameBoard extends GridPane {
      * @param y row
      * @return game block at the given column and row
      */
+    @Override
     public GameBlock getBlock(int x, int y) {
         return blocks[x][y];
     }
@@ -169,7 +196,7 @@ public class GameBoard extends GridPane {
         blocks[x][y] = block;
 
         //Link the GameBlock component to the corresponding value in the Grid
-        block.bind(grid.getGridProperty(x, y));
+        block.bind(properties.getGridProperty(x, y));
 
 
         //Add a mouse click handler to the block to trigger GameBoard blockClicked method
@@ -195,6 +222,7 @@ public class GameBoard extends GridPane {
      *
      * @param listener listener to add
      */
+    @Override
     public void setOnBlockClick(BlockClickedListener listener) {
         this.blockClickedListener = listener;
     }
@@ -204,6 +232,7 @@ public class GameBoard extends GridPane {
      *
      * @param listener listner to add
      */
+    @Override
     public void setRightClickedListener(RightClickedListener listener) {
         this.rightClickedListener = listener;
 
@@ -212,28 +241,71 @@ public class GameBoard extends GridPane {
 
 
     /**
-     * Starts fade-out animations for blocks given by their grid positions. It goes through each position,
+     * Set the clock the block animations are timed on, usually the clock of the game
+     *
+     * @param clock the clock
+     */
+    @Override
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Get the clock the block animations are timed on
+     *
+     * @return the clock
+     */
+    @Override
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Starts fade-out animations for the blocks of the cleared lines. It goes through each cleared block once,
      * finds the matching block on the board, and makes it start fading. This method visually represents the removal
      * of blocks from the game.
      *
-     * @param blocksToFade Positions of the blocks to fade out.
-     */
-    public void fadeOut(Set<GameBlockCoordinate> blocksToFade) {
-        logger.info("Fading out {} blocks", blocksToFade.size());
-        // loop through the set of coordinates to fade out every single block
-        for (GameBlockCoordinate coordinates : blocksToFade) {
-            // get the blocks at this coordinates
-            GameBlock block = getBlock(coordinates.getX(), coordinates.getY());
-            // if block is not null start the fade out animation
-            if (block != null) {
-                block.fadeOut();
-                logger.info("Fading out block at ({}, {})", coordinates.getX(), coordinates.getY());
+     * @param clearMask the rows and columns that were cleared
+     */
+    @Override
+    public void fadeOut(ClearMask clearMask) {
+        logger.info("Fading out {} blocks", clearMask.getBlockCount());
+        // loop through the cleared blocks to fade out every single block
+        clearMask.forEachBlock(fadeBlock);
+    }
 
-            }
+    /**
+     * Start the fade out animation of a single block
+     *
+     * @param x column
+     * @param y row
+     */
+    private void fadeBlock(int x, int y) {
+        // get the blocks at this coordinates
+        GameBlock block = getBlock(x, y);
+        // if block is not null start the fade out animation
+        if (block != null) {
+            block.fadeOut();
         }
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean paintEffect(int x, int y, Color colour) {
+        return getBlock(x, y).paintEffect(colour);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void paintBlock(int x, int y) {
+        getBlock(x, y).paint();
+    }
+
     /**
      * Triggered when a block is clicked. Call the attached listener.
      *
@@ -262,20 +334,30 @@ public class GameBoard extends GridPane {
 
 
     /**
-     * Handles hover state for a game block if the current object isn't a {@code PieceBoard}.
+     * Handles hover state for a game block.
      * It unsets any previously hovered block and sets the new one.
      *
      * @param gameBlock the game block to hover.
      */
     public void myHover(GameBlock gameBlock) {
-        if (!(this instanceof PieceBoard)) {
-            //refreshes the hover
-            if (this.myHover != null) {
-                this.unhoveringthePieceBoards(this.myHover);
+        // the overlay moves, the blocks themselves are not repainted
+        this.myHover = gameBlock;
+        getOverlay().setHover(gameBlock.getX(), gameBlock.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setHover(int x, int y) {
+        if (x < 0 || y < 0) {
+            if (overlay != null) {
+                myHover = null;
+                overlay.clear();
             }
-            this.myHover = gameBlock;
-            gameBlock.setHovered(true);
+            return;
         }
+        myHover(getBlock(x, y));
     }
 
     /**
@@ -284,7 +366,37 @@ public class GameBoard extends GridPane {
      * @param hover a {@link uk.ac.soton.comp1206.component.GameBlock} object
      */
     public void unhoveringthePieceBoards(GameBlock hover) {
-        hover.setHovered(false);
+        // only clear the hover if it has not moved on to another block already
+        if (hover == this.myHover && overlay != null) {
+            this.myHover = null;
+            overlay.clear();
+        }
+    }
+
+    /**
+     * Show the footprint of a piece around the hovered block instead of just the block, tinted by whether it fits
+     *
+     * @param piece the piece that would be placed, or null to only highlight the hovered block
+     */
+    @Override
+    public void setPreviewPiece(GamePiece piece) {
+        getOverlay().setPiece(piece);
+    }
+
+    /**
+     * Get the hover layer, adding it over the blocks the first time
+     *
+     * @return the overlay
+     */
+    private HoverOverlay getOverlay() {
+        if (overlay == null) {
+            overlay = new HoverOverlay(grid, width, height);
+            // not laid out in a cell, it lies over the whole board
+            overlay.setManaged(false);
+            overlay.resize(width, height);
+            getChildren().add(overlay);
+        }
+        return overlay;
     }
 }
 
@@ -0,0 +1,175 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.PieceShapes;
+
+/**
+ * A HoverOverlay is a layer over a GameBoard that highlights the hovered block, or the whole footprint of the piece
+ * that would be placed there.
+ * <p>
+ * The overlay holds one rectangle for every block a piece can cover, created once. Moving the hover only moves and
+ * shows or hides those rectangles, so no GameBlock is repainted. The footprint is tinted red when the piece does not
+ * fit. The overlay lets every click through to the blocks underneath.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class HoverOverlay extends Pane {
+
+    private static final Logger logger = LogManager.getLogger(HoverOverlay.class);
+
+    /**
+     * The highlight of a block, the same a hovered GameBlock shows
+     */
+    private static final Color FITS = BlockSprites.HIGHLIGHT;
+
+    /**
+     * The highlight of a footprint that does not fit
+     */
+    private static final Color BLOCKED = BlockSprites.BLOCKED;
+
+    /**
+     * The grid the overlay lies over
+     */
+    private final Grid grid;
+
+    /**
+     * The width of a block
+     */
+    private final double blockWidth;
+
+    /**
+     * The height of a block
+     */
+    private final double blockHeight;
+
+    /**
+     * A rectangle for every block of a piece, by row and then column of the piece
+     */
+    private final Rectangle[] cells = new Rectangle[PieceShapes.SIZE * PieceShapes.SIZE];
+
+    /**
+     * The piece whose footprint is shown, or null to highlight a single block
+     */
+    private GamePiece piece;
+
+    /**
+     * The hovered column, or -1 when nothing is hovered
+     */
+    private int hoverX = -1;
+
+    /**
+     * The hovered row, or -1 when nothing is hovered
+     */
+    private int hoverY = -1;
+
+    /**
+     * Create a new overlay for a grid shown at the given size
+     *
+     * @param grid   the grid the overlay lies over
+     * @param width  the visual width of the board
+     * @param height the visual height of the board
+     */
+    public HoverOverlay(Grid grid, double width, double height) {
+        this.grid = grid;
+        this.blockWidth = width / grid.getCols();
+        this.blockHeight = height / grid.getRows();
+
+        setPrefSize(width, height);
+        setMaxSize(width, height);
+        // clicks go to the blocks underneath
+        setMouseTransparent(true);
+
+        for (int i = 0; i < cells.length; i++) {
+            Rectangle cell = new Rectangle(blockWidth, blockHeight);
+            cell.setManaged(false);
+            cell.setVisible(false);
+            cells[i] = cell;
+        }
+        getChildren().addAll(cells);
+    }
+
+    /**
+     * Set the piece whose footprint is shown around the hovered block
+     *
+     * @param piece the piece, or null to only highlight the hovered block
+     */
+    public void setPiece(GamePiece piece) {
+        this.piece = piece;
+        update();
+    }
+
+    /**
+     * Move the highlight to the given block
+     *
+     * @param x column, or -1 for none
+     * @param y row, or -1 for none
+     */
+    public void setHover(int x, int y) {
+        if (x == hoverX && y == hoverY) {
+            return;
+        }
+        hoverX = x;
+        hoverY = y;
+        update();
+    }
+
+    /**
+     * Hide the highlight
+     */
+    public void clear() {
+        setHover(-1, -1);
+    }
+
+    /**
+     * Move the rectangles over the footprint at the hovered block
+     */
+    private void update() {
+        for (Rectangle cell : cells) {
+            cell.setVisible(false);
+        }
+        if (hoverX < 0 || hoverY < 0) {
+            return;
+        }
+        if (piece == null) {
+            // just the hovered block
+            show(cells[0], hoverX, hoverY, FITS);
+            return;
+        }
+
+        Color colour = grid.canPlayPiece(piece, hoverX, hoverY) ? FITS : BLOCKED;
+        for (int blockY = 0; blockY < PieceShapes.SIZE; blockY++) {
+            int rowMask = piece.getRowMask(blockY);
+            for (int blockX = 0; blockX < PieceShapes.SIZE; blockX++) {
+                if ((rowMask & (1 << blockX)) != 0) {
+                    // the piece is centred on the hovered block
+                    show(cells[blockY * PieceShapes.SIZE + blockX], hoverX + blockX - 1, hoverY + blockY - 1, colour);
+                }
+            }
+        }
+        logger.trace("Footprint shown at ({}, {})", hoverX, hoverY);
+    }
+
+    /**
+     * Show a rectangle over a block, if the block is on the grid
+     *
+     * @param cell   the rectangle
+     * @param x      column
+     * @param y      row
+     * @param colour the highlight
+     */
+    private void show(Rectangle cell, int x, int y, Color colour) {
+        if (x < 0 || y < 0 || x >= grid.getCols() || y >= grid.getRows()) {
+            return;
+        }
+        cell.relocate(x * blockWidth, y * blockHeight);
+        cell.setFill(colour);
+        cell.setVisible(true);
+    }
+}
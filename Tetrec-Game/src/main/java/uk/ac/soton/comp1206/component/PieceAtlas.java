@@ -0,0 +1,240 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Dimension2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.PieceShapes;
+import uk.ac.soton.comp1206.ui.Diagnostics;
+import uk.ac.soton.comp1206.ui.DisplayScale;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The PieceAtlas holds a thumbnail of every piece in every rotation, rendered once into a single image, so showing a
+ * piece is a matter of showing the right part of the image instead of building a board of blocks for it.
+ * <p>
+ * A thumbnail looks the same as a 3x3 piece board: the blocks of the piece on a grid of empty blocks, with the centre
+ * block marked. There is one more thumbnail with no piece on it. The thumbnails are laid out in a square, so the image
+ * stays well within the largest texture a graphics card takes.
+ * <p>
+ * There is one atlas per thumbnail size, shared by every view of that size. It is rendered at the size it takes up on
+ * screen, as given by the {@link DisplayScale}, and rendered again soon after the scale changes. Views follow the
+ * {@link #imageProperty()} to pick up the new image. The atlas is rendered with a snapshot, so it is only used on the
+ * FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class PieceAtlas {
+
+    private static final Logger logger = LogManager.getLogger(PieceAtlas.class);
+
+    /**
+     * The number of blocks along each side of a thumbnail
+     */
+    private static final int BLOCKS = 3;
+
+    /**
+     * The number of thumbnails, every rotation of every piece and the empty one
+     */
+    private static final int CELLS = GamePiece.PIECES * PieceShapes.ROTATIONS + 1;
+
+    /**
+     * The number of thumbnails along each side of the image
+     */
+    private static final int COLUMNS = (int) Math.ceil(Math.sqrt(CELLS));
+
+    /**
+     * The atlases of every thumbnail size
+     */
+    private static final Map<Dimension2D, PieceAtlas> SIZES = new HashMap<>();
+
+    /**
+     * The width of a thumbnail
+     */
+    private final double width;
+
+    /**
+     * The height of a thumbnail
+     */
+    private final double height;
+
+    /**
+     * The sprites the blocks of the thumbnails are drawn with
+     */
+    private final BlockSprites sprites;
+
+    /**
+     * The rendered image
+     */
+    private final ReadOnlyObjectWrapper<Image> image = new ReadOnlyObjectWrapper<>();
+
+    /**
+     * The scale the image was rendered at
+     */
+    private double renderedScale;
+
+    /**
+     * Set while a render is waiting for the scale to settle
+     */
+    private boolean renderPending;
+
+    /**
+     * Create the atlas of one thumbnail size and render it
+     *
+     * @param width  the width of a thumbnail
+     * @param height the height of a thumbnail
+     */
+    private PieceAtlas(double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.sprites = BlockSprites.forScreen(width / BLOCKS, height / BLOCKS);
+        render();
+
+        // atlases live as long as the window, so the listener is never removed
+        DisplayScale.scaleProperty().addListener((observable, oldScale, newScale) -> scaleChanged());
+    }
+
+    /**
+     * Get the shared atlas of a thumbnail size
+     *
+     * @param width  the width of a thumbnail
+     * @param height the height of a thumbnail
+     * @return the atlas
+     */
+    public static PieceAtlas forSize(double width, double height) {
+        return SIZES.computeIfAbsent(new Dimension2D(width, height), size -> new PieceAtlas(width, height));
+    }
+
+    /**
+     * Get the image holding every thumbnail, which is replaced when the atlas is rendered again
+     *
+     * @return the image as a property
+     */
+    public ReadOnlyObjectProperty<Image> imageProperty() {
+        return image.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the image holding every thumbnail
+     *
+     * @return the image
+     */
+    public Image getImage() {
+        return image.get();
+    }
+
+    /**
+     * Get the part of the image showing a piece in its current rotation
+     *
+     * @param piece the piece, or null for the thumbnail with no piece
+     * @return the part of the image, in pixels of the image
+     */
+    public Rectangle2D getViewport(GamePiece piece) {
+        int cell = cellOf(piece);
+        double cellWidth = width * renderedScale;
+        double cellHeight = height * renderedScale;
+        return new Rectangle2D((cell % COLUMNS) * cellWidth, (cell / COLUMNS) * cellHeight, cellWidth, cellHeight);
+    }
+
+    /**
+     * Draw the thumbnail of a piece on a graphics context
+     *
+     * @param gc    the graphics context
+     * @param piece the piece, or null for the thumbnail with no piece
+     * @param x     the left edge of the thumbnail
+     * @param y     the top edge of the thumbnail
+     */
+    public void draw(GraphicsContext gc, GamePiece piece, double x, double y) {
+        Rectangle2D viewport = getViewport(piece);
+        gc.drawImage(getImage(), viewport.getMinX(), viewport.getMinY(), viewport.getWidth(), viewport.getHeight(),
+                x, y, width, height);
+    }
+
+    /**
+     * Get the position of a thumbnail in the atlas
+     *
+     * @param piece the piece, or null for the thumbnail with no piece
+     * @return the position
+     */
+    private static int cellOf(GamePiece piece) {
+        if (piece == null) {
+            return CELLS - 1;
+        }
+        return piece.getPieceNumber() * PieceShapes.ROTATIONS + piece.getRotation();
+    }
+
+    /**
+     * Render the atlas again once the scale has settled, rather than on every step of a resize
+     */
+    private void scaleChanged() {
+        if (renderPending) {
+            return;
+        }
+        renderPending = true;
+        Diagnostics.runLater(() -> {
+            renderPending = false;
+            if (renderedScale != DisplayScale.getScale()) {
+                render();
+            }
+        });
+    }
+
+    /**
+     * Render every thumbnail into one image, the same way a piece board paints its blocks
+     */
+    private void render() {
+        renderedScale = DisplayScale.getScale();
+        int rows = (CELLS + COLUMNS - 1) / COLUMNS;
+        Canvas canvas = new Canvas(Math.ceil(COLUMNS * width * renderedScale),
+                Math.ceil(rows * height * renderedScale));
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setTransform(renderedScale, 0, 0, renderedScale, 0, 0);
+
+        for (int cell = 0; cell < CELLS; cell++) {
+            GamePiece piece = null;
+            if (cell < CELLS - 1) {
+                piece = GamePiece.createPiece(cell / PieceShapes.ROTATIONS, cell % PieceShapes.ROTATIONS);
+            }
+            drawPiece(gc, piece, (cell % COLUMNS) * width, (cell / COLUMNS) * height);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image.set(canvas.snapshot(parameters, null));
+        logger.debug("Rendered piece atlas of {} x {} at scale {}", width, height, renderedScale);
+    }
+
+    /**
+     * Draw the blocks of one thumbnail
+     *
+     * @param gc    the graphics context of the atlas
+     * @param piece the piece, or null for no piece
+     * @param left  the left edge of the thumbnail
+     * @param top   the top edge of the thumbnail
+     */
+    private void drawPiece(GraphicsContext gc, GamePiece piece, double left, double top) {
+        int[][] blocks = piece == null ? null : piece.getBlocks();
+        double blockWidth = width / BLOCKS;
+        double blockHeight = height / BLOCKS;
+        for (int x = 0; x < BLOCKS; x++) {
+            for (int y = 0; y < BLOCKS; y++) {
+                int value = blocks == null ? 0 : blocks[x][y];
+                // the centre block is marked, as it is where the piece is placed from
+                BlockSprites.Variant variant = x == 1 && y == 1
+                        ? BlockSprites.Variant.INDICATOR : BlockSprites.Variant.NORMAL;
+                sprites.draw(gc, value, variant, left + x * blockWidth, top + y * blockHeight);
+            }
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package uk.ac.soton.comp1206.component;
 
-import javafx.animation.Animation;
-import javafx.animation.RotateTransition;
-import javafx.util.Duration;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.game.GamePiece;
-import uk.ac.soton.comp1206.game.Grid;
 
 
 /**
  * <p>PieceBoard class.</p>
+ * <p>
+ * Shows a single piece on a 3x3 grid, such as the next pieces in the game or the pieces in the instructions. The board
+ * does not hold blocks of its own: it shows the thumbnail of the piece from the shared {@link PieceAtlas} of its size,
+ * so every piece board of a size shares one image.
  *
  * @author abdullamaghrabi
  * @version $Id: $Id
  */
-public class PieceBoard extends GameBoard {
+public class PieceBoard extends StackPane {
 
-    private static final Logger logger = LogManager.getLogger(GameBoard.class);
+    private static final Logger logger = LogManager.getLogger(PieceBoard.class);
 
     private boolean flag;
 
+    /**
+     * The piece shown, or null for an empty board
+     */
+    private final ObjectProperty<GamePiece> piece = new SimpleObjectProperty<>();
+
+    /**
+     * Shows the thumbnail of the piece from the atlas
+     */
+    private final ImageView view = new ImageView();
+
     /**
      * <p>Constructor for PieceBoard.</p>
      *
@@ -29,7 +44,7 @@ public class PieceBoard extends GameBoard {
      * @param flag   a boolean
      */
     public PieceBoard(double width, double height, boolean flag) {
-        super(new Grid(3, 3), width, height);
+        this(width, height);
         this.flag = flag;
     }
 
@@ -41,44 +56,36 @@ public class PieceBoard extends GameBoard {
      * @param height a double
      */
     public PieceBoard(double width, double height) {
-        // Call the parent constructor with a new Grid of 3x3 and the specified dimensions
-        super(new Grid(3, 3), width, height);
-        // You can initialize other properties or configurations here as needed
+        setPrefSize(width, height);
+        setMinSize(width, height);
+        setMaxSize(width, height);
+
+        // the view follows the atlas, which is rendered again when the display scale changes
+        PieceAtlas atlas = PieceAtlas.forSize(width, height);
+        view.setFitWidth(width);
+        view.setFitHeight(height);
+        view.imageProperty().bind(atlas.imageProperty());
+        view.viewportProperty().bind(Bindings.createObjectBinding(() -> atlas.getViewport(piece.get()),
+                piece, atlas.imageProperty()));
+        getChildren().add(view);
         logger.info("PieceBoard created with width: " + width + " and height: " + height);
     }
 
     /**
-     * This method is to display the 3 * 3 grid in the game
+     * This method is to display the piece in the 3 * 3 grid in the game
      *
      * @param piece the game piece to be displayed
      */
     public void settingPieceToDisplay(GamePiece piece) {
-        // First thing clear the previous lines so new blocks can be placed without overlapping
-        clearingLines();
         if (piece == null) {
             logger.error("Attempted to display a null piece");
-            return; // Do nothing if the piece is null
-        }
-
-        // the 2D array representing the game blocks
-        int[][] blocks = piece.getBlocks();
-
-        logger.info("Displaying the grid in the center of the grid");
-
-        //Iterate over the blocks of the game
-        for (int cols = 0; cols < blocks.length; cols++) {
-            for (int rows = 0; rows < blocks[cols].length; rows++) {
-                // if the current block is grater than 0 then set it in the grid
-                if (blocks[cols][rows] > 0) {
-                    grid.set(cols, rows, blocks[cols][rows]);
-
-
-                }
-
-
-            }
+            // leave the board empty
+            clearingLines();
+            return;
         }
 
+        // the piece can be rotated later on, so the board keeps the shape it has now
+        this.piece.set(GamePiece.createPiece(piece.getPieceNumber(), piece.getRotation()));
     }
 
     /**
@@ -86,16 +93,7 @@ public class PieceBoard extends GameBoard {
      */
     public void clearingLines() {
         logger.info("clearing grid");
-        // iterate through the blocks and set them to 0
-        for (int i = 0; i < grid.getCols(); i++) {
-            for (int j = 0; j < grid.getRows(); j++) {
-                grid.set(i, j, 0);
-
-
-            }
-        }
-
-
+        piece.set(null);
     }
 
 
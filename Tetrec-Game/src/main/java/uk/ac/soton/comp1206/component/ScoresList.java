@@ -1,7 +1,6 @@
 package uk.ac.soton.comp1206.component;
 
 import javafx.animation.FadeTransition;
-import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
@@ -16,6 +15,7 @@ import javafx.util.Duration;
 import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.ui.Diagnostics;
 
 /**
  * This class generate the list of the scores
@@ -98,7 +98,7 @@ public class ScoresList extends BorderPane {
      */
     public void update(ObservableList<Pair<String, Integer>> newScores) {
         // making the updates run in the ui
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             //updates the scoresProperty
             scoresProperty.set(FXCollections.observableArrayList(newScores));
             //refresh the scoresProperty of the scores
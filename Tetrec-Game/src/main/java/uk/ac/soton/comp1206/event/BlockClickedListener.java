@@ -1,10 +1,10 @@
 package uk.ac.soton.comp1206.event;
 
-import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.component.BoardBlock;
 
 /**
- * The Block Clicked listener is used to handle the event when a block in a GameBoard is clicked. It passes the
- * GameBlock that was clicked in the message
+ * The Block Clicked listener is used to handle the event when a block in a GameBoard or BoardViewport is clicked. It
+ * passes the block that was clicked in the message: the GameBlock on a GameBoard, or its coordinate on a viewport
  *
  * @author abdullamaghrabi
  * @version $Id: $Id
@@ -16,5 +16,5 @@ public interface BlockClickedListener {
      *
      * @param block the block that was clicked
      */
-    public void blockClicked(GameBlock block);
+    public void blockClicked(BoardBlock block);
 }
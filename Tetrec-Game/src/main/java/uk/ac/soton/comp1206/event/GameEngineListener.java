@@ -0,0 +1,112 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.ClearMask;
+import uk.ac.soton.comp1206.game.GamePiece;
+
+/**
+ * The GameEngineListener is told about everything that happens inside a GameEngine, so a user interface, a sound
+ * player or a statistics collector can follow a game without the engine knowing about any of them.
+ * <p>
+ * Every method does nothing by default, so a listener only implements the events it cares about. The methods are
+ * called on the thread that runs the engine.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public interface GameEngineListener {
+
+    /**
+     * Called when the held pieces change: a new piece was dealt, or a held piece was rotated or swapped
+     *
+     * @param nextPiece       the piece that will be placed next
+     * @param followingPieces the piece after it
+     */
+    default void piecesChanged(GamePiece nextPiece, GamePiece followingPieces) {
+    }
+
+    /**
+     * Called when the score, level, lives or multiplier change
+     *
+     * @param score      the score
+     * @param level      the level
+     * @param lives      the lives left
+     * @param multiplier the multiplier
+     */
+    default void statsChanged(int score, int level, int lives, int multiplier) {
+    }
+
+    /**
+     * Called when a piece has been placed on the grid, before any full lines are cleared
+     *
+     * @param piece the piece that was placed
+     * @param x     the column of the centre of the piece
+     * @param y     the row of the centre of the piece
+     */
+    default void piecePlaced(GamePiece piece, int x, int y) {
+    }
+
+    /**
+     * Called when a piece could not be placed at the given block
+     *
+     * @param x the column that was tried
+     * @param y the row that was tried
+     */
+    default void placementFailed(int x, int y) {
+    }
+
+    /**
+     * Called when full lines have been cleared
+     *
+     * @param clearMask the rows and columns that were cleared, only valid during the call
+     */
+    default void linesCleared(ClearMask clearMask) {
+    }
+
+    /**
+     * Called when the next piece has been rotated
+     */
+    default void pieceRotated() {
+    }
+
+    /**
+     * Called when the held pieces have been swapped
+     */
+    default void piecesSwapped() {
+    }
+
+    /**
+     * Called when a life has been lost, either because the timer ran out or because there was no legal move
+     *
+     * @param lives the lives left
+     */
+    default void lifeLost(int lives) {
+    }
+
+    /**
+     * Called after an undo was tried
+     *
+     * @param undone true if the last placement was taken back
+     */
+    default void undone(boolean undone) {
+    }
+
+    /**
+     * Called when the game loop timer starts
+     *
+     * @param delayMillis the time before it runs out, in game milliseconds
+     */
+    default void timerStarted(int delayMillis) {
+    }
+
+    /**
+     * Called when the game loop timer is stopped
+     */
+    default void timerStopped() {
+    }
+
+    /**
+     * Called once when the game has ended
+     */
+    default void gameEnded() {
+    }
+}
@@ -0,0 +1,87 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.ClearMask;
+import uk.ac.soton.comp1206.game.GamePiece;
+
+/**
+ * A GameEvent is something that happened in a game, delivered to the user interface by a {@link GameEventBus}.
+ * <p>
+ * Events are immutable copies of what happened, so they can be delivered after the game has moved on. Events that
+ * describe the current state of the game, rather than something that happened, implement {@link State}: when several
+ * of the same state event are posted before a delivery, only the latest is delivered.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public interface GameEvent {
+
+    /**
+     * An event describing the current state, of which only the latest matters
+     */
+    interface State extends GameEvent {
+    }
+
+    /**
+     * The held pieces changed
+     *
+     * @param nextPiece       a copy of the piece that will be placed next
+     * @param followingPieces a copy of the piece after it
+     */
+    record PiecesChanged(GamePiece nextPiece, GamePiece followingPieces) implements State {
+    }
+
+    /**
+     * The score, level, lives or multiplier changed
+     *
+     * @param score      the score
+     * @param level      the level
+     * @param lives      the lives left
+     * @param multiplier the multiplier
+     */
+    record StatsChanged(int score, int level, int lives, int multiplier) implements State {
+    }
+
+    /**
+     * A piece was placed on the grid
+     *
+     * @param piece a copy of the piece that was placed
+     * @param x     the column of the centre of the piece
+     * @param y     the row of the centre of the piece
+     */
+    record PiecePlaced(GamePiece piece, int x, int y) implements GameEvent {
+    }
+
+    /**
+     * The next piece was rotated
+     */
+    record PieceRotated() implements GameEvent {
+    }
+
+    /**
+     * The held pieces were swapped
+     */
+    record PiecesSwapped() implements GameEvent {
+    }
+
+    /**
+     * Full lines were cleared
+     *
+     * @param clearMask a copy of the rows and columns that were cleared, only valid while the event is delivered
+     */
+    record LinesCleared(ClearMask clearMask) implements GameEvent {
+    }
+
+    /**
+     * A life was lost
+     *
+     * @param lives the lives left
+     */
+    record LifeLost(int lives) implements GameEvent {
+    }
+
+    /**
+     * The game ended
+     */
+    record GameEnded() implements GameEvent {
+    }
+}
@@ -0,0 +1,201 @@
+package uk.ac.soton.comp1206.event;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * The GameEventBus collects the events of a game and delivers them to any number of subscribers in batches.
+ * <p>
+ * Events can be posted from any thread. The first event of a batch asks the flush executor to deliver the batch (for
+ * the user interface, {@code Platform::runLater}), and every event posted until then joins the same batch, so a move
+ * that changes the pieces, the score and the grid at once reaches the subscribers in one go on the next pulse.
+ * <p>
+ * State events ({@link GameEvent.State}) are coalesced: a newer state event of the same type replaces the pending one,
+ * so however often the score changes between two pulses the subscribers only see the latest score. Other events are
+ * delivered in the order they were posted. Nothing ever blocks the game: a batch only holds one event per state type
+ * plus the events that actually happened.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class GameEventBus {
+
+    private static final Logger logger = LogManager.getLogger(GameEventBus.class);
+
+    /**
+     * A subscription that can be cancelled
+     */
+    public interface Subscription {
+
+        /**
+         * Stop delivering events to the subscriber
+         */
+        void cancel();
+    }
+
+    /**
+     * Runs the delivery of a batch
+     */
+    private final Executor flushExecutor;
+
+    /**
+     * The subscribers of every event type
+     */
+    private final Map<Class<?>, List<Consumer<GameEvent>>> subscribers = new HashMap<>();
+
+    /**
+     * The events waiting for delivery, in the order they were posted
+     */
+    private List<GameEvent> pending = new ArrayList<>();
+
+    /**
+     * The spare list swapped in while a batch is delivered, or null while it is in use
+     */
+    private List<GameEvent> spare = new ArrayList<>();
+
+    /**
+     * The position in the pending list of the waiting event of every state type
+     */
+    private final Map<Class<?>, Integer> pendingState = new HashMap<>();
+
+    /**
+     * The tasks to run once the waiting events have been delivered
+     */
+    private List<Runnable> pendingAfter = new ArrayList<>();
+
+    /**
+     * The spare list of tasks swapped in while a batch is delivered, or null while it is in use
+     */
+    private List<Runnable> spareAfter = new ArrayList<>();
+
+    /**
+     * Set while a delivery has been asked for and has not run yet
+     */
+    private boolean flushScheduled;
+
+    /**
+     * Create a new bus that delivers its batches through the given executor
+     *
+     * @param flushExecutor runs the delivery of a batch, on the thread the subscribers expect
+     */
+    public GameEventBus(Executor flushExecutor) {
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * Subscribe to every event of a type
+     *
+     * @param type       the event type
+     * @param subscriber called with every event of the type
+     * @param <E>        the event type
+     * @return the subscription, which can be cancelled
+     */
+    public <E extends GameEvent> Subscription subscribe(Class<E> type, Consumer<? super E> subscriber) {
+        Consumer<GameEvent> delivery = event -> subscriber.accept(type.cast(event));
+        List<Consumer<GameEvent>> list;
+        synchronized (subscribers) {
+            list = subscribers.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>());
+        }
+        list.add(delivery);
+        return () -> list.remove(delivery);
+    }
+
+    /**
+     * Post an event. It is delivered with the next batch.
+     *
+     * @param event the event
+     */
+    public void post(GameEvent event) {
+        boolean schedule;
+        synchronized (this) {
+            if (event instanceof GameEvent.State) {
+                Integer position = pendingState.get(event.getClass());
+                if (position != null) {
+                    // only the latest state matters, so it takes the place of the waiting one
+                    pending.set(position, event);
+                    return;
+                }
+                pendingState.put(event.getClass(), pending.size());
+            }
+            pending.add(event);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Run a task on the flush thread once every event posted so far has been delivered, for example to reuse
+     * something the events carried
+     *
+     * @param task the task
+     */
+    public void afterDelivery(Runnable task) {
+        boolean schedule;
+        synchronized (this) {
+            pendingAfter.add(task);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Deliver every waiting event to its subscribers
+     */
+    public void flush() {
+        List<GameEvent> batch;
+        List<Runnable> after;
+        synchronized (this) {
+            batch = pending;
+            pending = spare != null ? spare : new ArrayList<>();
+            spare = null;
+            after = pendingAfter;
+            pendingAfter = spareAfter != null ? spareAfter : new ArrayList<>();
+            spareAfter = null;
+            pendingState.clear();
+            flushScheduled = false;
+        }
+
+        for (GameEvent event : batch) {
+            List<Consumer<GameEvent>> list;
+            synchronized (subscribers) {
+                list = subscribers.get(event.getClass());
+            }
+            if (list == null) {
+                continue;
+            }
+            for (Consumer<GameEvent> subscriber : list) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException e) {
+                    // one broken subscriber should not stop the others
+                    logger.error("Subscriber failed on " + event, e);
+                }
+            }
+        }
+
+        for (Runnable task : after) {
+            task.run();
+        }
+
+        batch.clear();
+        after.clear();
+        synchronized (this) {
+            spare = batch;
+            spareAfter = after;
+        }
+    }
+}
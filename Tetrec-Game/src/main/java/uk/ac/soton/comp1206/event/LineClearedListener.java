@@ -1,8 +1,6 @@
 package uk.ac.soton.comp1206.event;
 
-import uk.ac.soton.comp1206.component.GameBlockCoordinate;
-
-import java.util.Set;
+import uk.ac.soton.comp1206.game.ClearMask;
 
 /**
  * This an interface to handle the animation of the lines cleared
@@ -14,9 +12,10 @@ public interface LineClearedListener {
 
 
     /**
-     * This listner handles the event one the line is cleared
+     * This listner handles the event one the line is cleared. It is called once per placement.
      *
-     * @param blocksCoordinate an instance of the set of GameBlockCoordinates
+     * @param clearMask the rows and columns that were cleared. The mask is reused, so it should only be read during
+     *                  the call
      */
-    void lineCleared(Set<GameBlockCoordinate> blocksCoordinate);
+    void lineCleared(ClearMask clearMask);
 }
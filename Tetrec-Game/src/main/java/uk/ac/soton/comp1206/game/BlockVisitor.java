@@ -0,0 +1,20 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The BlockVisitor is used to walk over a set of blocks in a grid by their column and row, without creating a
+ * coordinate object for every block.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+@FunctionalInterface
+public interface BlockVisitor {
+
+    /**
+     * Handle a single block
+     *
+     * @param x column
+     * @param y row
+     */
+    void visit(int x, int y);
+}
@@ -0,0 +1,275 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+
+/**
+ * A ClearMask holds the full rows and columns cleared by a single placement as two bitsets.
+ * <p>
+ * A Game keeps one ClearMask and reuses it for every placement, so reporting a clear does not allocate anything. The
+ * blocks of the mask can be walked with {@link #forEachBlock(BlockVisitor)}, which visits a block where a row and a
+ * column cross only once, or the rows and columns can be walked with {@link #nextRow(int)} and
+ * {@link #nextColumn(int)}.
+ * <p>
+ * Because the mask is reused, listeners should read it while they are being notified and not keep hold of it.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class ClearMask {
+
+    /**
+     * The number of columns in the grid this mask belongs to
+     */
+    private final int cols;
+
+    /**
+     * The number of rows in the grid this mask belongs to
+     */
+    private final int rows;
+
+    /**
+     * Bit y is set when row y is cleared
+     */
+    private final long[] rowBits;
+
+    /**
+     * Bit x is set when column x is cleared
+     */
+    private final long[] colBits;
+
+    /**
+     * The number of rows in the mask
+     */
+    private int rowCount;
+
+    /**
+     * The number of columns in the mask
+     */
+    private int colCount;
+
+    /**
+     * Create a new, empty ClearMask for a grid of the given size
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public ClearMask(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.rowBits = new long[(rows + 63) >>> 6];
+        this.colBits = new long[(cols + 63) >>> 6];
+    }
+
+    /**
+     * Make a copy of this mask that can be kept after the mask is reused
+     *
+     * @return the copy
+     */
+    public ClearMask copy() {
+        return new ClearMask(cols, rows).copyFrom(this);
+    }
+
+    /**
+     * Make this mask the same as another mask of the same size, so a spare mask can be reused instead of copied
+     *
+     * @param other the mask to copy
+     * @return this mask
+     */
+    public ClearMask copyFrom(ClearMask other) {
+        if (other.cols != cols || other.rows != rows) {
+            throw new IllegalArgumentException("Cannot copy a " + other.cols + " x " + other.rows + " mask into a "
+                    + cols + " x " + rows + " mask");
+        }
+        System.arraycopy(other.rowBits, 0, rowBits, 0, rowBits.length);
+        System.arraycopy(other.colBits, 0, colBits, 0, colBits.length);
+        rowCount = other.rowCount;
+        colCount = other.colCount;
+        return this;
+    }
+
+    /**
+     * Empty the mask so it can be reused for the next placement
+     */
+    public void reset() {
+        // the bitsets only need clearing when something was added
+        if (rowCount > 0) {
+            Arrays.fill(rowBits, 0L);
+        }
+        if (colCount > 0) {
+            Arrays.fill(colBits, 0L);
+        }
+        rowCount = 0;
+        colCount = 0;
+    }
+
+    /**
+     * Add a full row to the mask
+     *
+     * @param y row
+     */
+    public void addRow(int y) {
+        if (!containsRow(y)) {
+            rowBits[y >>> 6] |= 1L << y;
+            rowCount++;
+        }
+    }
+
+    /**
+     * Add a full column to the mask
+     *
+     * @param x column
+     */
+    public void addColumn(int x) {
+        if (!containsColumn(x)) {
+            colBits[x >>> 6] |= 1L << x;
+            colCount++;
+        }
+    }
+
+    /**
+     * Check whether a row is in the mask
+     *
+     * @param y row
+     * @return true if the row is cleared
+     */
+    public boolean containsRow(int y) {
+        return (rowBits[y >>> 6] & (1L << y)) != 0;
+    }
+
+    /**
+     * Check whether a column is in the mask
+     *
+     * @param x column
+     * @return true if the column is cleared
+     */
+    public boolean containsColumn(int x) {
+        return (colBits[x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * Check whether a block is cleared by this mask, either by its row or by its column
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block is cleared
+     */
+    public boolean contains(int x, int y) {
+        return containsRow(y) || containsColumn(x);
+    }
+
+    /**
+     * Find the next cleared row
+     *
+     * @param from the row to start looking from
+     * @return the first cleared row at or after from, or -1 if there is none
+     */
+    public int nextRow(int from) {
+        return nextSetBit(rowBits, from, rows);
+    }
+
+    /**
+     * Find the next cleared column
+     *
+     * @param from the column to start looking from
+     * @return the first cleared column at or after from, or -1 if there is none
+     */
+    public int nextColumn(int from) {
+        return nextSetBit(colBits, from, cols);
+    }
+
+    /**
+     * Find the next set bit in a bitset
+     *
+     * @param bits  the bitset
+     * @param from  the bit to start looking from
+     * @param limit the number of bits in use
+     * @return the index of the next set bit, or -1
+     */
+    private static int nextSetBit(long[] bits, int from, int limit) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= limit) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(current);
+                return index < limit ? index : -1;
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+
+    /**
+     * Visit every cleared block once. The full rows are visited first, then the blocks of the full columns that are
+     * not also in a full row.
+     *
+     * @param visitor the visitor to call for every block
+     */
+    public void forEachBlock(BlockVisitor visitor) {
+        for (int y = nextRow(0); y != -1; y = nextRow(y + 1)) {
+            for (int x = 0; x < cols; x++) {
+                visitor.visit(x, y);
+            }
+        }
+        for (int x = nextColumn(0); x != -1; x = nextColumn(x + 1)) {
+            for (int y = 0; y < rows; y++) {
+                if (!containsRow(y)) {
+                    visitor.visit(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of full rows in the mask
+     *
+     * @return number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the number of full columns in the mask
+     *
+     * @return number of columns
+     */
+    public int getColumnCount() {
+        return colCount;
+    }
+
+    /**
+     * Get the number of lines, rows and columns, in the mask
+     *
+     * @return number of lines
+     */
+    public int getLineCount() {
+        return rowCount + colCount;
+    }
+
+    /**
+     * Get the number of distinct blocks cleared by the mask
+     *
+     * @return number of blocks
+     */
+    public int getBlockCount() {
+        return rowCount * cols + colCount * rows - rowCount * colCount;
+    }
+
+    /**
+     * Check whether nothing is cleared
+     *
+     * @return true if the mask has no rows or columns
+     */
+    public boolean isEmpty() {
+        return rowCount == 0 && colCount == 0;
+    }
+
+}
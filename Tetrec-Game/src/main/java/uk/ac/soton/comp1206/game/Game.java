@@ -1,6 +1,5 @@
 package uk.ac.soton.comp1206.game;
 
-import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -11,48 +10,35 @@ import javafx.scene.control.ListView;
 import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.component.GameBlock;
-import uk.ac.soton.comp1206.component.GameBlockCoordinate;
+import uk.ac.soton.comp1206.component.BoardBlock;
+import uk.ac.soton.comp1206.event.GameEngineListener;
+import uk.ac.soton.comp1206.event.GameEvent;
+import uk.ac.soton.comp1206.event.GameEventBus;
 import uk.ac.soton.comp1206.event.GameLoopListener;
 import uk.ac.soton.comp1206.event.LineClearedListener;
 import uk.ac.soton.comp1206.event.NextPieceListener;
 import uk.ac.soton.comp1206.event.RightClickedListener;
 import uk.ac.soton.comp1206.scene.ChallengeScene;
+import uk.ac.soton.comp1206.ui.Diagnostics;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.util.*;
 
 /**
- * The Game class handles the main logic, state and properties of the TetrECS game. Methods to manipulate the game state
- * and to handle actions made by the player should take place inside this class.
+ * The Game class adapts a {@link GameEngine} to JavaFX for the challenge scene. The rules and the state of the game
+ * live in the engine; the Game mirrors the score, level, lives and multiplier into properties the scene binds to,
+ * plays the sounds, runs the timer on the FX thread and passes the engine events on to the scene's listeners.
  *
  * @author abdullamaghrabi
  * @version $Id: $Id
  */
-public class Game implements RightClickedListener {
+public class Game implements RightClickedListener, GameEngineListener {
 
     /**
      * An instance variable of the interface
      */
     private NextPieceListener nextPieceListener;
 
-
-    /**
-     * an instance variable of the GamePiece class
-     */
-    protected GamePiece currentPiece;
-
-
-    /**
-     * an instance variable of the GamePiece class
-     */
-    protected GamePiece nextPiece;
-
-    /**
-     * an instance variable of the class GamePiece
-     */
-    protected GamePiece followingPieces;
-
     /**
      * this is to track the score
      */
@@ -75,29 +61,22 @@ public class Game implements RightClickedListener {
      */
     protected final IntegerProperty multiplier = new SimpleIntegerProperty(1);
 
-
-    Random random = new Random();
-
     private static final Logger logger = LogManager.getLogger(Game.class);
 
-
     /**
-     * Number of rows
+     * The engine that holds the rules and the state of the game
      */
-    protected final int rows;
+    private final GameEngine engine;
 
     /**
-     * Number of columns
+     * Delivers the events of the engine to the user interface, one batch per pulse
      */
-    protected final int cols;
+    private final GameEventBus events = new GameEventBus(Diagnostics::runLater);
 
     /**
-     * The grid model linked to the game
+     * Clear masks whose LinesCleared event has been delivered, ready to carry the next one. Only used on the FX thread.
      */
-    protected final Grid grid;
-
-    private Timer gameTimer;
-
+    private final ArrayDeque<ClearMask> spareMasks = new ArrayDeque<>();
 
     /**
      * Initialization of Multimedia class
@@ -141,12 +120,26 @@ public class Game implements RightClickedListener {
      * @param gameWindow     a {@link uk.ac.soton.comp1206.ui.GameWindow} object
      */
     public Game(int cols, int rows, ChallengeScene challengeScene, GameWindow gameWindow) {
+        this(cols, rows, challengeScene, gameWindow, GameClock.realTime());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns whose timer runs on the given clock. Creates a
+     * corresponding grid model.
+     *
+     * @param cols           number of columns
+     * @param rows           number of rows
+     * @param challengeScene a {@link uk.ac.soton.comp1206.scene.ChallengeScene} object
+     * @param gameWindow     a {@link uk.ac.soton.comp1206.ui.GameWindow} object
+     * @param clock          the clock the game loop timer is measured on
+     */
+    public Game(int cols, int rows, ChallengeScene challengeScene, GameWindow gameWindow, GameClock clock) {
         this.gameWindow = gameWindow;
 
-        this.cols = cols;
-        this.rows = rows;
-        //Create a new grid model to represent the game state
-        this.grid = new Grid(cols, rows);
+        // the timer runs out on the shared timer thread and is handed back to the FX thread
+        this.engine = new GameEngine(cols, rows, clock, Diagnostics::runLater);
+        engine.setPublishSnapshots(true);
+        engine.setListener(this);
 
         // Bind the ListView's items property to the listProperty to ensure any changes also reflects in the listView
         listView.itemsProperty().bind(localScores);
@@ -200,212 +193,109 @@ public class Game implements RightClickedListener {
     }
 
     /**
-     * Start the game
+     * Get the engine behind this game
+     *
+     * @return the engine
      */
-    public void start() {
-        logger.info("Starting game");
-        initialiseGame();
-        startGameLoop();
+    public GameEngine getEngine() {
+        return engine;
     }
 
     /**
-     * assigns GamePiece.createPiece with a random index from 0 to GamePiece. PIECES - 1
+     * Get the bus the events of this game are delivered on. Subscribers are called on the FX thread.
      *
-     * @return a new game piece
+     * @return the event bus
      */
-    public GamePiece spawnPiece() {
-        return GamePiece.createPiece(random.nextInt(GamePiece.PIECES));
+    public GameEventBus getEvents() {
+        return events;
     }
 
-
     /**
-     * Initialise a new game and set up anything that needs to be done at the start
+     * Copy a piece, so an event keeps showing it as it was when it was posted
+     *
+     * @param piece the piece
+     * @return a copy with the same rotation, or null
      */
-    public void initialiseGame() {
-        logger.info("Initialising game");
-        // spawn a new game piece and assign  it to currentPiece variable
-        currentPiece = spawnPiece();
-        // preload the nextPiece making the
-        nextPiece = spawnPiece();
-        // this while loop ensures that every board get a distinct element
-        while (nextPiece.equals(currentPiece)) {
-            nextPiece = followingPieces;
-        }
-        // preload the followingPiece
-        followingPieces = spawnPiece();
-        // this while loop ensures that every pieceBoard hava a different random blocks
-        while (followingPieces.equals(nextPiece) || followingPieces.equals(currentPiece)) {
-            followingPieces = spawnPiece();
-        }
-        updatePieceBoards();
+    private static GamePiece copyOf(GamePiece piece) {
+        return piece == null ? null : GamePiece.createPiece(piece.getPieceNumber(), piece.getRotation());
     }
 
     /**
-     * cycling the pieces
+     * Start the game
      */
-    public void nextPiece() {
-        logger.info("moving to a new piece ");
-        // here it works like a cycle
-        currentPiece = nextPiece; // moving the nextPiece to be the current piece
-        nextPiece = followingPieces; // moving the following piece to be the nextPiece
-        followingPieces = spawnPiece(); // spawn a new following piece
-        updatePieceBoards();
-        // to update the piece boards
-
-
+    public void start() {
+        engine.start();
     }
 
 
     /**
      * A method to check if a block can be placed or not and perform actions after a block is blocked
      *
-     * @param gameBlock a {@link uk.ac.soton.comp1206.component.GameBlock} object
-     */
-    public void blockClicked(GameBlock gameBlock) {
-        logger.info("Block clicked at position (" + gameBlock.getX() + "," + gameBlock.getY() + ")");
-        // Calculate the position and attempt to place the piece
-        int blockX = gameBlock.getX();
-        int blockY = gameBlock.getY();
-        if (grid.canPlayPiece(this.nextPiece, blockX, blockY)) {
-            grid.playPiece(nextPiece, blockX, blockY);
-            multimedia.playAnAudio("place.wav");
-            nextPiece();
-            afterPiece();
-            resetTimer();
-        } else {
-            multimedia.playAnAudio("fail.wav");
-        }
-
+     * @param gameBlock a {@link uk.ac.soton.comp1206.component.BoardBlock} object
+     */
+    public void blockClicked(BoardBlock gameBlock) {
+        blockClicked(gameBlock.getX(), gameBlock.getY());
     }
 
-
     /**
-     * Identifies and clears fully filled horizontal and vertical lines on the grid.
-     * This method performs two main tasks:
-     * 1. It iterates through each row to check  and clear fully filled horizontal lines.
-     * 2. It iterates through each column to check  and clear fully filled vertical lines.
-     * A HashSet is used to monitor block coordinates that need to be cleaned, guaranteeing accurate clearance and the absence of duplicates.
-     * This approach handles intersecting lines by only marking each block once for clearing, regardless of its part in horizontal or vertical lines.
-     * Detailed logging provides insights into the process, the identification of fully filled lines, and the actions taken to clear them.
+     * A method to check if the next piece can be placed with its centre at the given block and perform actions after
+     * it is placed.
+     *
+     * @param blockX the column that was clicked
+     * @param blockY the row that was clicked
      */
-    public void afterPiece() {
-        // A HashSet was used to store the coordinates of the blocks to be cleared
-        HashSet<GameBlockCoordinate> clearingLines = new HashSet<>();
-
-        int totalClearingLines = 0; // A counter to keep tracking the total lines need to be cleared;
-
-
-        // iterating through the grid from top of the rows tell bottom
-        for (int y = 0; y < grid.getRows(); y++) {
-            // counter initialized to for the filled blocks in a row
-            int filledHorizontalLines = 0;
-            // Loop through each column in the current row
-            for (int x = 0; x < grid.getCols(); x++) {
-                // a condition checks if the index is greater than zero which probably will be 1 if not 0
-                if (grid.get(x, y) > 0) {
-
-                    filledHorizontalLines++;// then  filled Lines counter increases by one
-                }
-            }
-
-            logger.info("Row " + y + ": " + filledHorizontalLines + " filled lines out of " + grid.getCols() + " total Lines.");
-
-            // check if the whole line is full (columns of the row)
-            if (filledHorizontalLines == grid.getCols()) {
-                // the counter is incrementing
-                totalClearingLines++;
-                // if so, iterate throw the blocks and add it to the set of clearing
-                for (int x = 0; x < grid.getCols(); x++) {
-
-                    clearingLines.add(new GameBlockCoordinate(x, y));// clear the grid
-                }
-                logger.info("Row " + y + " is full and will be cleared.");
-
-
-            }
-
-        }
-        // iterate through the columns of the grid
-        for (int x = 0; x < grid.getCols(); x++) {
-            // to track current Vertical filled Lines
-            int filledVerticalLines = 0;
-            // iterate through each row in the current column
-            for (int y = 0; y < grid.getRows(); y++) {
-                // if the block is occupied
-                if (grid.get(x, y) > 0) {
-                    filledVerticalLines++; // increment the filled  vertical lines
-                }
-            }
-            logger.info("Column " + x + ": " + filledVerticalLines + " filled vertical lines out of " + grid.getRows() + " total cells.");
-            // check if the current column is fully filled
-            if (filledVerticalLines == grid.getRows()) {
-                // the counter is incrementing
-                totalClearingLines++;
-                // then add all blocks to be cleared
-                for (int y = 0; y < grid.getRows(); y++) {
-                    clearingLines.add(new GameBlockCoordinate(x, y));
-                }
-            }
-
-        }
-
-
-        // after clearing all lines iterate through the cleared lines adn set there values to zero
-        for (GameBlockCoordinate coordinates : clearingLines) {
-            grid.set(coordinates.getX(), coordinates.getY(), 0);
-            logger.info("Clearing cells at (" + coordinates.getX() + ", " + coordinates.getY() + ")");
-            // notify the listner if there is a  line to clear
-            notifyBlocks(clearingLines);
-
-        }
-
-
-        // check if any of the lines are cleared
-        if (totalClearingLines > 0) {
-            // updating the score of the game based on the formula in the score method
-            score(totalClearingLines, clearingLines.size());
-
-            // incrementing the multiplier
-            multiplier.set(multiplier.get() + 1);
+    public void blockClicked(int blockX, int blockY) {
+        logger.info("Block clicked at position (" + blockX + "," + blockY + ")");
+        engine.place(blockX, blockY);
+    }
 
-        } else {
-            // resting the multiplier
-            multiplier.set(1);
-        }
 
+    /**
+     * Take an immutable snapshot of the game. Must be called on the FX thread, the snapshot itself can then be read
+     * anywhere.
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot snapshot() {
+        return engine.snapshot();
     }
 
     /**
-     * This method updates the score of the game and upgrade the level depending on the score points
+     * Get a 64 bit Zobrist hash of the position: the blocks of the grid, the held pieces with their rotations and the
+     * pieces queued after them.
      *
-     * @param numberOfLines  number of lines cleared
-     * @param numberOfBlocks numberOfBlocks cleared in the lines
+     * @return the hash
      */
-    public void score(int numberOfLines, int numberOfBlocks) {
-        // A condition to ensure that score won't update unless there are lines cleared
-        if (numberOfLines > 0) {
-            // The formula for calculating the new score
-            int addingScore = numberOfLines * numberOfBlocks * 10 * multiplier.get();
-            //updating the score by adding the current score and the new one
-            score.set(score.get() + addingScore);
-
-
-            logger.info("Score updated: " + score.get() + " by adding " + addingScore + " points.");
-
-            // for every 1000 point the level is upgrading score
-            int upgradeLevel = score.get() / 1000;
-
-            // this condition checks if the upgradeLevel is not in the same level if not then it sets the level to the new level
-            if (upgradeLevel != level.get()) {
-                // setting it to the new level
-                level.set(level.get() + upgradeLevel);
-                logger.info("The Current Level after updating is: " + level.get());
-
-            }
+    public long getPositionHash() {
+        return engine.getPositionHash();
+    }
 
-        }
+    /**
+     * Get the latest snapshot of the game, updated after every placement, rotation, swap and lost life. Safe to call
+     * from any thread.
+     *
+     * @return the latest snapshot, or null before the game has started
+     */
+    public GameSnapshot getLatestSnapshot() {
+        return engine.getLatestSnapshot();
+    }
 
+    /**
+     * Take back the last placement
+     *
+     * @return true if the placement was undone
+     */
+    public boolean undo() {
+        return engine.undo();
+    }
 
+    /**
+     * Set what happens when neither held piece can be placed anywhere
+     *
+     * @param noMoveAction the action to take
+     */
+    public void setNoMoveAction(GameEngine.NoMoveAction noMoveAction) {
+        engine.setNoMoveAction(noMoveAction);
     }
 
     /**
@@ -418,20 +308,6 @@ public class Game implements RightClickedListener {
         logger.info("NextPieceListener set successfully");
     }
 
-    /**
-     * Update the pieceBoard UI components on the current held pieces
-     */
-    private void updatePieceBoards() {
-
-        if (nextPieceListener == null) {
-            logger.error("nextPieceListener is null at this point");
-        } else {
-            nextPieceListener.nextPiece(nextPiece, followingPieces);
-        }
-
-
-    }
-
     /**
      * adds a listner for the clearance events
      * when the lines are cleared the lines get notified
@@ -445,67 +321,27 @@ public class Game implements RightClickedListener {
     }
 
 
-    /**
-     * Notifies all listeners registered that the block is cleared
-     *
-     * @param clearedBlocks clearedBlocks The set of coordinates for the blocks that have been cleared.
-     */
-    public void notifyBlocks(Set<GameBlockCoordinate> clearedBlocks) {
-        // iterate through all the registered listeners
-        for (LineClearedListener listner : this.lineClearedListeners) {
-            // notifying all listeners by passing the cleared blocks
-            listner.lineCleared(clearedBlocks);
-
-        }
-    }
-
-
     /**
      * A method for rotating the game piece
      */
     public void rotateNextPiece() {
-
-        // this condition rotate the current piece if it is not null
-        if (nextPiece != null) {
-            nextPiece.rotate();
-            multimedia.playAnAudio("rotate.wav");
-            logger.info("next piece rotate successfully");
-            updatePieceBoards();
-        }
-
-        if (nextPieceListener != null) {
-            nextPieceListener.nextPiece(nextPiece, followingPieces);
-
-
-        }
+        engine.rotateNextPiece();
     }
 
     /**
      * A method to rotate the piece clockwise
      */
     public void rotateClockWise() {
-        multimedia.playAnAudio("rotate.wav");
         // indicating how many  rotations should it be as 90 degree by setting it to three
-        nextPiece.rotate(3);
-        // updating the PieceBoards
-        updatePieceBoards();
-
+        engine.rotateNextPiece(3);
         logger.info("Rotating Clockwise");
-
-
     }
 
     /**
-     * A method to rotate the piece clockwise
+     * A method to rotate the piece anticlockwise
      */
     public void rotateOnClock() {
-        multimedia.playAnAudio("rotate.wav");
-        // indicating how many  rotations should it be as 90 degree by setting it to three
-        nextPiece.rotate(1);
-        // updating the PieceBoards
-        updatePieceBoards();
-
-
+        engine.rotateNextPiece(1);
     }
 
 
@@ -524,123 +360,173 @@ public class Game implements RightClickedListener {
      * A method to swap the currentPiece
      */
     public void swapCurrentPiece() {
-        GamePiece temporarily = this.nextPiece;
-        this.nextPiece = this.followingPieces;
-        this.followingPieces = temporarily;
-        multimedia.playAnAudio("transition.wav");
-
-        updatePieceBoards();
-
-
+        engine.swapCurrentPiece();
     }
 
     /**
      * Calculates the delay for the game loop timer based on the current game level.
-     * The delay decreases as the level increases*
      *
      * @return The calculated delay in milliseconds for the game loop timer.
      */
     public int getTimerDelay() {
-        // Calculate the delay based on the game level. The base delay is 1200 milliseconds.
-        // For each level, reduce the delay by 500 milliseconds to increase the game's difficulty.
-        int delay = 12000 - (500 * this.getLevel().get());
-
-        // ensure that the delay doesn't go below 2500 so if the delay is less we take the 2500 milliseconds
-        delay = Math.max(2500, delay);
-        // return the delay in milliseconds
-        return delay;
+        return engine.getTimerDelay();
     }
 
     /**
-     * Starts the game loop using a Timer to schedule repeated execution of game logic.
-     * This loop runs the method at fixed intervals from the getTimerDelay method .
+     * stops the gameLoop by cancelling the pending timeout
      */
-    public void startGameLoop() {
-        gameTimer = new Timer();
-        gameTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                gameLoop();
-            }
-        }, getTimerDelay());
-
-        if (gameLoopListener != null) {
-            gameLoopListener.onGameLoop();
-        }
+    public void stopGameLoop() {
+        engine.stopGameLoop();
     }
 
+    /**
+     * Get the clock the game loop timer is measured on
+     *
+     * @return the clock
+     */
+    public GameClock getClock() {
+        return engine.getClock();
+    }
 
     /**
-     * Executes a cycle of game logic, updating game states like lives and initiating game transitions.
-     * This method handles decrementing lives if block not placed or timer finished, moves to the next game phase, ends the game if lives run out,
-     * plays a sound effect for life loss, and resets the game timer.
+     * A method to link the registered listeners to the gameLoopListner
+     *
+     * @param gameLoopListener A listner
      */
-    public void gameLoop() {
-        Platform.runLater(() -> {
-            logger.info("Lives: " + lives.get());
+    public void setOnGameLoop(GameLoopListener gameLoopListener) {
+        this.gameLoopListener = gameLoopListener;
+    }
 
-            // Only decrement lives if no block has been placed and lives are greater than zero
-            if (lives.get() > 0) {
-                lives.set(lives.get() - 1);
-                logger.info("Decrementing lives to " + lives.get() + " and resetting multiplier.");
-                multiplier.set(1);
-                nextPiece();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pass the new held pieces on to the piece boards.
+     */
+    @Override
+    public void piecesChanged(GamePiece nextPiece, GamePiece followingPieces) {
+        if (nextPieceListener != null) {
+            nextPieceListener.nextPiece(nextPiece, followingPieces);
+        }
+        // the engine keeps rotating the held pieces, so the event gets copies
+        events.post(new GameEvent.PiecesChanged(copyOf(nextPiece), copyOf(followingPieces)));
+    }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Mirror the numbers into the properties the scene is bound to.
+     */
+    @Override
+    public void statsChanged(int score, int level, int lives, int multiplier) {
+        this.score.set(score);
+        this.level.set(level);
+        this.lives.set(lives);
+        this.multiplier.set(multiplier);
+        events.post(new GameEvent.StatsChanged(score, level, lives, multiplier));
+    }
 
-            } else {
-                // else go to the scoresScene means that the game ended
-                endGameScene();
-                return;
-            }
-            multimedia.playAnAudio("lifelose.wav");
-            resetTimer();
-        });
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void piecePlaced(GamePiece piece, int x, int y) {
+        multimedia.playAnAudio("place.wav");
+        events.post(new GameEvent.PiecePlaced(copyOf(piece), x, y));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void placementFailed(int x, int y) {
+        multimedia.playAnAudio("fail.wav");
+    }
 
     /**
-     * stops the gameLoop by shutting down the scheduler
+     * {@inheritDoc}
+     * <p>
+     * Notifies all registered line cleared listeners.
      */
-    public void stopGameLoop() {
-        //check if the gimeTimer is not null
-        if (gameTimer != null) {
-            gameTimer.cancel();
-            gameTimer = null;
+    @Override
+    public void linesCleared(ClearMask clearMask) {
+        // iterate through all the registered listeners
+        for (LineClearedListener listner : this.lineClearedListeners) {
+            // notifying all listeners by passing the cleared lines
+            listner.lineCleared(clearMask);
         }
-        if (gameLoopListener != null) {
-            gameLoopListener.endGameLoop();
+        // the engine reuses its mask on the next clear, so the event carries a copy, which is reused itself once the
+        // subscribers have seen it
+        ClearMask spare = spareMasks.poll();
+        ClearMask copy = spare == null ? clearMask.copy() : spare.copyFrom(clearMask);
+        events.post(new GameEvent.LinesCleared(copy));
+        events.afterDelivery(() -> spareMasks.push(copy));
+    }
 
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void pieceRotated() {
+        multimedia.playAnAudio("rotate.wav");
+        events.post(new GameEvent.PieceRotated());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void piecesSwapped() {
+        multimedia.playAnAudio("transition.wav");
+        events.post(new GameEvent.PiecesSwapped());
+    }
 
     /**
-     * Resets the gameLoop timer by canceling the current task and rescheduling it
+     * {@inheritDoc}
      */
-    public void resetTimer() {
-        logger.info("reseting the timer");
-        stopGameLoop();
-        startGameLoop(); // Restart the game loop with the updated delay
+    @Override
+    public void lifeLost(int lives) {
+        multimedia.playAnAudio("lifelose.wav");
+        events.post(new GameEvent.LifeLost(lives));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void undone(boolean undone) {
+        multimedia.playAnAudio(undone ? "transition.wav" : "fail.wav");
+    }
 
     /**
-     * A method to link the registered listeners to the gameLoopListner
-     *
-     * @param gameLoopListener A listner
+     * {@inheritDoc}
      */
-    public void setOnGameLoop(GameLoopListener gameLoopListener) {
-        this.gameLoopListener = gameLoopListener;
+    @Override
+    public void timerStarted(int delayMillis) {
+        if (gameLoopListener != null) {
+            gameLoopListener.onGameLoop();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void timerStopped() {
+        if (gameLoopListener != null) {
+            gameLoopListener.endGameLoop();
+        }
+    }
 
     /**
-     * This method transit to the score scene
+     * {@inheritDoc}
+     * <p>
+     * Move on to the score scene.
      */
-    public void endGameScene() {
+    @Override
+    public void gameEnded() {
+        events.post(new GameEvent.GameEnded());
         if (gameWindow != null) {
             logger.info("going to score menu");
-            stopGameLoop();
             multimedia.backGroundMusicStop();
             this.gameWindow.startScoreScene(this);
             multimedia.playAnBackgroundMusic("end.wav");
@@ -649,6 +535,14 @@ public class Game implements RightClickedListener {
         }
     }
 
+
+    /**
+     * This method ends the game, which stops the timer and transits to the score scene
+     */
+    public void endGameScene() {
+        engine.endGame();
+    }
+
     /**
      * this method so once esc is pressed go back to the menu
      */
@@ -669,7 +563,7 @@ public class Game implements RightClickedListener {
      * @return game grid model
      */
     public Grid getGrid() {
-        return grid;
+        return engine.getGrid();
     }
 
     /**
@@ -678,7 +572,7 @@ public class Game implements RightClickedListener {
      * @return number of columns
      */
     public int getCols() {
-        return cols;
+        return engine.getCols();
     }
 
     /**
@@ -687,7 +581,7 @@ public class Game implements RightClickedListener {
      * @return number of rows
      */
     public int getRows() {
-        return rows;
+        return engine.getRows();
     }
 
 
@@ -697,7 +591,7 @@ public class Game implements RightClickedListener {
      * @return a {@link uk.ac.soton.comp1206.game.GamePiece} object
      */
     public GamePiece getNextPiece() {
-        return nextPiece;
+        return engine.getNextPiece();
     }
 
     /**
@@ -706,7 +600,7 @@ public class Game implements RightClickedListener {
      * @return a {@link uk.ac.soton.comp1206.game.GamePiece} object
      */
     public GamePiece getFollowingPieces() {
-        return followingPieces;
+        return engine.getFollowingPieces();
 
     }
 }
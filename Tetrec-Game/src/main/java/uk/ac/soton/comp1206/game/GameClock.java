@@ -0,0 +1,192 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The GameClock is the source of time for a game, its timers and its animations.
+ * <p>
+ * A clock runs in one of three modes:
+ * <ul>
+ *     <li>{@link Mode#REAL_TIME} follows the system clock, optionally sped up or slowed down by a rate.</li>
+ *     <li>{@link Mode#FIXED_STEP} only moves when {@link #step()} is called, by the same amount every time.</li>
+ *     <li>{@link Mode#AS_FAST_AS_POSSIBLE} only moves when it is told to, jumping straight to the next deadline.</li>
+ * </ul>
+ * The last two never read the system clock, so the same moves give exactly the same timings on every run, and a game
+ * can be played thousands of times faster than real time.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class GameClock {
+
+    /**
+     * The ways a clock can move forward
+     */
+    public enum Mode {
+        /**
+         * Follows the system clock
+         */
+        REAL_TIME,
+        /**
+         * Moves a fixed step at a time
+         */
+        FIXED_STEP,
+        /**
+         * Jumps from deadline to deadline
+         */
+        AS_FAST_AS_POSSIBLE
+    }
+
+    /**
+     * How this clock moves forward
+     */
+    private final Mode mode;
+
+    /**
+     * How many game seconds pass per real second, in real time mode
+     */
+    private final double rate;
+
+    /**
+     * The amount a fixed step clock moves on every step, in nanoseconds
+     */
+    private final long stepNanos;
+
+    /**
+     * The system time the clock started at, in real time mode
+     */
+    private final long origin;
+
+    /**
+     * The current time of a simulated clock, in nanoseconds
+     */
+    private long now;
+
+    /**
+     * Create a new clock. Use the factory methods instead.
+     *
+     * @param mode      how the clock moves
+     * @param rate      game seconds per real second
+     * @param stepNanos the fixed step in nanoseconds
+     */
+    private GameClock(Mode mode, double rate, long stepNanos) {
+        this.mode = mode;
+        this.rate = rate;
+        this.stepNanos = stepNanos;
+        this.origin = mode == Mode.REAL_TIME ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Create a clock that follows the system clock
+     *
+     * @return the clock
+     */
+    public static GameClock realTime() {
+        return realTime(1);
+    }
+
+    /**
+     * Create a clock that follows the system clock at a different speed
+     *
+     * @param rate game seconds per real second, for example 2 to play twice as fast
+     * @return the clock
+     */
+    public static GameClock realTime(double rate) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Clock rate must be positive: " + rate);
+        }
+        return new GameClock(Mode.REAL_TIME, rate, 0);
+    }
+
+    /**
+     * Create a clock that moves by a fixed amount every time {@link #step()} is called
+     *
+     * @param stepNanos the step in nanoseconds
+     * @return the clock
+     */
+    public static GameClock fixedStep(long stepNanos) {
+        if (stepNanos <= 0) {
+            throw new IllegalArgumentException("Clock step must be positive: " + stepNanos);
+        }
+        return new GameClock(Mode.FIXED_STEP, 1, stepNanos);
+    }
+
+    /**
+     * Create a clock that only moves when it is advanced, so a game runs as fast as the moves are made
+     *
+     * @return the clock
+     */
+    public static GameClock asFastAsPossible() {
+        return new GameClock(Mode.AS_FAST_AS_POSSIBLE, 1, 0);
+    }
+
+    /**
+     * Get the current time of the clock
+     *
+     * @return the time in nanoseconds since the clock started
+     */
+    public long nanoTime() {
+        if (mode == Mode.REAL_TIME) {
+            return (long) ((System.nanoTime() - origin) * rate);
+        }
+        return now;
+    }
+
+    /**
+     * Get the current time of the clock in milliseconds
+     *
+     * @return the time in milliseconds since the clock started
+     */
+    public long millis() {
+        return nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Move a fixed step clock forward by one step
+     */
+    public void step() {
+        if (mode != Mode.FIXED_STEP) {
+            throw new IllegalStateException("Only a fixed step clock can be stepped");
+        }
+        now += stepNanos;
+    }
+
+    /**
+     * Move a simulated clock forward to the given time. Does nothing if the clock is already past it.
+     *
+     * @param nanos the time to move to, in nanoseconds since the clock started
+     */
+    public void advanceTo(long nanos) {
+        if (mode == Mode.REAL_TIME) {
+            throw new IllegalStateException("A real time clock cannot be advanced");
+        }
+        now = Math.max(now, nanos);
+    }
+
+    /**
+     * Get how this clock moves forward
+     *
+     * @return the mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get how many game seconds pass per real second. Animations that run in real time, such as JavaFX timelines,
+     * should play at this rate.
+     *
+     * @return the rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Check whether this clock follows the system clock
+     *
+     * @return true in real time mode
+     */
+    public boolean isRealTime() {
+        return mode == Mode.REAL_TIME;
+    }
+
+}
@@ -0,0 +1,830 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.event.GameEngineListener;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The GameEngine holds the rules and the state of a single game of TetrECS: the grid, the held pieces, the score,
+ * level, lives and multiplier, and the game loop timer.
+ * <p>
+ * The engine is plain Java. Its state is kept in primitive fields and everything that happens is reported to a
+ * {@link GameEngineListener}, so it runs without a display, as fast as the moves can be made. The {@link Game} class
+ * adapts an engine to JavaFX for the challenge scene.
+ * <p>
+ * An engine is not thread safe: all calls, and its timer when it runs out, should happen on one thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class GameEngine {
+
+    private static final Logger logger = LogManager.getLogger(GameEngine.class);
+
+    /**
+     * What happens when neither of the held pieces can be placed anywhere on the board
+     */
+    public enum NoMoveAction {
+        /**
+         * The game ends straight away
+         */
+        END_GAME,
+        /**
+         * The player loses a life and gets new pieces, as if the timer had run out
+         */
+        LOSE_LIFE
+    }
+
+    /**
+     * A listener that ignores every event, used until one is set
+     */
+    private static final GameEngineListener NO_LISTENER = new GameEngineListener() {
+    };
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * Number of rows
+     */
+    private final int rows;
+
+    /**
+     * The grid model linked to the game
+     */
+    private final Grid grid;
+
+    /**
+     * The full rows and columns of the last placement, reused for every placement
+     */
+    private final ClearMask clearMask;
+
+    /**
+     * The clock the game loop timer is measured on
+     */
+    private final GameClock clock;
+
+    /**
+     * Runs the game loop timeout
+     */
+    private final GameScheduler scheduler;
+
+    /**
+     * The number of pieces dealt in advance by default, after the two held pieces
+     */
+    public static final int DEFAULT_LOOKAHEAD = 3;
+
+    /**
+     * Deals the pieces
+     */
+    private PieceSequence sequence = PieceSequence.uniform(System.nanoTime());
+
+    /**
+     * The number of pieces dealt in advance, after the two held pieces
+     */
+    private int lookahead = DEFAULT_LOOKAHEAD;
+
+    /**
+     * The pieces dealt in advance, created when the game is initialised
+     */
+    private volatile PieceQueue upcoming;
+
+    /**
+     * The listener told about everything that happens
+     */
+    private GameEngineListener listener = NO_LISTENER;
+
+    /**
+     * The held pieces: the piece in play before the next one, the next piece and the one after it
+     */
+    private GamePiece currentPiece, nextPiece, followingPieces;
+
+    /**
+     * The score of the current player
+     */
+    private int score;
+
+    /**
+     * The level of the current game
+     */
+    private int level;
+
+    /**
+     * The lives of the current player
+     */
+    private int lives = 3;
+
+    /**
+     * The score multiplier
+     */
+    private int multiplier = 1;
+
+    /**
+     * What to do when there is no legal move left
+     */
+    private NoMoveAction noMoveAction = NoMoveAction.LOSE_LIFE;
+
+    /**
+     * The score, multiplier and level before the last placement, restored by undo
+     */
+    private int undoScore, undoMultiplier, undoLevel;
+
+    /**
+     * The held pieces and their rotations before the last placement, restored by undo
+     */
+    private GamePiece undoNextPiece, undoFollowingPieces;
+    private int undoNextRotation, undoFollowingRotation;
+
+    /**
+     * Set when the last placement can be undone
+     */
+    private boolean canUndo;
+
+    /**
+     * Set when a snapshot should be published after every change
+     */
+    private boolean publishSnapshots;
+
+    /**
+     * The latest snapshot of the game, published on the engine thread and read from any thread
+     */
+    private volatile GameSnapshot latestSnapshot;
+
+    /**
+     * Set once the game has ended, so nothing restarts the timer afterwards
+     */
+    private boolean gameOver;
+
+    /**
+     * Create a new headless engine whose timer runs on the given clock. With a real time clock the timer runs out on
+     * the shared timer thread, so it should be given a dispatcher with {@link #GameEngine(int, int, GameClock, Executor)}.
+     *
+     * @param cols  number of columns
+     * @param rows  number of rows
+     * @param clock the clock the game loop timer is measured on
+     */
+    public GameEngine(int cols, int rows, GameClock clock) {
+        this(cols, rows, clock, Runnable::run);
+    }
+
+    /**
+     * Create a new engine whose timer runs on the given clock and is handed to the given dispatcher when it runs out
+     *
+     * @param cols       number of columns
+     * @param rows       number of rows
+     * @param clock      the clock the game loop timer is measured on
+     * @param dispatcher runs the game loop on the engine thread when a real time timer runs out
+     */
+    public GameEngine(int cols, int rows, GameClock clock, Executor dispatcher) {
+        this.cols = cols;
+        this.rows = rows;
+        this.clock = clock;
+        this.scheduler = new GameScheduler(clock, dispatcher);
+        //Create a new grid model to represent the game state
+        this.grid = new Grid(cols, rows);
+        this.clearMask = new ClearMask(cols, rows);
+        // journal the grid so a placement can be undone. Only the last placement is ever undone, and it changes at
+        // most the blocks of the piece and three full rows and columns, plus its mark
+        this.grid.enableJournal(PieceShapes.SIZE * PieceShapes.SIZE + PieceShapes.SIZE * (cols + rows) + 1);
+    }
+
+    /**
+     * Set the listener told about everything that happens
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(GameEngineListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * Seed the piece generator, so the same seed deals the same pieces. Call before the game starts.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        setPieceSequence(sequence.withSeed(seed));
+    }
+
+    /**
+     * Set the sequence the pieces are dealt from. Call before the game starts.
+     *
+     * @param sequence the sequence, which then belongs to this engine
+     */
+    public void setPieceSequence(PieceSequence sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Set how many pieces are dealt in advance after the two held pieces. Call before the game starts.
+     *
+     * @param lookahead the number of pieces, at least one
+     */
+    public void setLookahead(int lookahead) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be at least one: " + lookahead);
+        }
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Publish a snapshot after every change so other threads can read the game with {@link #getLatestSnapshot()}
+     *
+     * @param publishSnapshots true to publish snapshots
+     */
+    public void setPublishSnapshots(boolean publishSnapshots) {
+        this.publishSnapshots = publishSnapshots;
+    }
+
+    /**
+     * Start the game
+     */
+    public void start() {
+        logger.info("Starting game");
+        initialiseGame();
+        startGameLoop();
+    }
+
+    /**
+     * Deal the next piece: the front of the queue of upcoming pieces, or straight from the sequence before the game
+     * has been initialised
+     *
+     * @return a new game piece
+     */
+    public GamePiece spawnPiece() {
+        return upcoming == null ? sequence.nextPiece() : upcoming.takePiece();
+    }
+
+    /**
+     * Initialise a new game and deal the first pieces. The three first pieces are all different.
+     */
+    public void initialiseGame() {
+        logger.info("Initialising game");
+        upcoming = null;
+        currentPiece = spawnPiece();
+        nextPiece = spawnPiece();
+        // deal again until every held piece is a different piece
+        while (nextPiece.isSamePiece(currentPiece)) {
+            nextPiece = spawnPiece();
+        }
+        followingPieces = spawnPiece();
+        while (followingPieces.isSamePiece(nextPiece) || followingPieces.isSamePiece(currentPiece)) {
+            followingPieces = spawnPiece();
+        }
+        // from now on pieces are dealt through the queue, so they can be seen in advance
+        upcoming = new PieceQueue(sequence, lookahead);
+        piecesChanged();
+    }
+
+    /**
+     * Move every held piece along by one and deal a new following piece
+     */
+    public void nextPiece() {
+        logger.trace("moving to a new piece");
+        currentPiece = nextPiece;
+        nextPiece = followingPieces;
+        followingPieces = spawnPiece();
+        piecesChanged();
+    }
+
+    /**
+     * Place the next piece with its centre at the given block if it fits, clear any full lines and deal the next
+     * piece
+     *
+     * @param x column
+     * @param y row
+     * @return true if the piece was placed
+     */
+    public boolean place(int x, int y) {
+        logger.trace("Placing at ({},{})", x, y);
+        if (gameOver || !grid.canPlayPiece(nextPiece, x, y)) {
+            listener.placementFailed(x, y);
+            return false;
+        }
+        GamePiece placed = nextPiece;
+        saveUndoState();
+        grid.playPiece(placed, x, y);
+        listener.piecePlaced(placed, x, y);
+        nextPiece();
+        afterPiece(placed, x, y);
+        publishSnapshot();
+        // only restart the timer if the player can still move
+        if (checkForLegalMove()) {
+            resetTimer();
+        }
+        return true;
+    }
+
+    /**
+     * Identifies and clears fully filled horizontal and vertical lines on the grid after a piece has been placed.
+     * Only the rows and columns the placed piece touched can have become full, so those are the only ones checked,
+     * using the fill counters the grid keeps for every row and column.
+     * The full lines are collected in the reusable clear mask, which handles intersecting lines by only counting each
+     * block once, and the listener is told once with the mask after the grid has been cleared.
+     *
+     * @param piece the piece that was just placed
+     * @param x     the column the centre of the piece was placed at
+     * @param y     the row the centre of the piece was placed at
+     */
+    public void afterPiece(GamePiece piece, int x, int y) {
+        clearMask.reset();
+        // the columns of the piece that hold at least one block
+        int pieceColumns = 0;
+
+        // check only the rows the piece has blocks in
+        for (int row = 0; row < PieceShapes.SIZE; row++) {
+            int rowMask = piece.getRowMask(row);
+            pieceColumns |= rowMask;
+            if (rowMask != 0 && grid.isRowFull(y - 1 + row)) {
+                clearMask.addRow(y - 1 + row);
+            }
+        }
+        // check only the columns the piece has blocks in
+        for (int col = 0; col < PieceShapes.SIZE; col++) {
+            if ((pieceColumns & (1 << col)) != 0 && grid.isColumnFull(x - 1 + col)) {
+                clearMask.addColumn(x - 1 + col);
+            }
+        }
+
+        int totalClearingLines = clearMask.getLineCount();
+        if (totalClearingLines > 0) {
+            // empty the full lines and tell the listener once
+            grid.clearLines(clearMask);
+            logger.trace("Cleared {} lines, {} blocks", totalClearingLines, clearMask.getBlockCount());
+            listener.linesCleared(clearMask);
+
+            addScore(totalClearingLines, clearMask.getBlockCount());
+            multiplier++;
+        } else {
+            multiplier = 1;
+        }
+        statsChanged();
+    }
+
+    /**
+     * Update the score for cleared lines and upgrade the level depending on the score
+     *
+     * @param numberOfLines  number of lines cleared
+     * @param numberOfBlocks number of blocks cleared in the lines
+     */
+    public void score(int numberOfLines, int numberOfBlocks) {
+        addScore(numberOfLines, numberOfBlocks);
+        statsChanged();
+    }
+
+    /**
+     * Add the score for cleared lines without telling the listener
+     *
+     * @param numberOfLines  number of lines cleared
+     * @param numberOfBlocks number of blocks cleared in the lines
+     */
+    private void addScore(int numberOfLines, int numberOfBlocks) {
+        // the score only changes when lines are cleared
+        if (numberOfLines > 0) {
+            int addingScore = numberOfLines * numberOfBlocks * 10 * multiplier;
+            score += addingScore;
+            logger.trace("Score updated: {} by adding {} points.", score, addingScore);
+
+            // for every 1000 point the level is upgrading
+            int upgradeLevel = score / 1000;
+            if (upgradeLevel != level) {
+                level += upgradeLevel;
+                logger.trace("The Current Level after updating is: {}", level);
+            }
+        }
+    }
+
+    /**
+     * Rotate the next piece anticlockwise by a quarter turn
+     */
+    public void rotateNextPiece() {
+        rotateNextPiece(1);
+    }
+
+    /**
+     * Rotate the next piece by a number of quarter turns
+     *
+     * @param rotations the number of quarter turns
+     */
+    public void rotateNextPiece(int rotations) {
+        if (nextPiece == null) {
+            return;
+        }
+        nextPiece.rotate(rotations);
+        listener.pieceRotated();
+        piecesChanged();
+    }
+
+    /**
+     * Swap the next piece with the one after it
+     */
+    public void swapCurrentPiece() {
+        GamePiece temporarily = nextPiece;
+        nextPiece = followingPieces;
+        followingPieces = temporarily;
+        listener.piecesSwapped();
+        piecesChanged();
+    }
+
+    /**
+     * Remember everything a placement changes apart from the grid, and mark the grid journal
+     */
+    private void saveUndoState() {
+        grid.mark();
+        undoScore = score;
+        undoMultiplier = multiplier;
+        undoLevel = level;
+        undoNextPiece = nextPiece;
+        undoNextRotation = nextPiece.getRotation();
+        undoFollowingPieces = followingPieces;
+        undoFollowingRotation = followingPieces.getRotation();
+        canUndo = true;
+    }
+
+    /**
+     * Take back the last placement: the grid is rolled back through its journal, and the score, multiplier, level and
+     * held pieces go back to what they were before the piece was placed. The piece dealt after the placement goes back
+     * into the queue, so a seeded game deals the same pieces whether or not a placement was undone. Only the last
+     * placement can be undone, and not once a life has been lost since.
+     *
+     * @return true if the placement was undone
+     */
+    public boolean undo() {
+        if (!canUndo || gameOver || !grid.rollback()) {
+            listener.undone(false);
+            return false;
+        }
+        canUndo = false;
+        score = undoScore;
+        multiplier = undoMultiplier;
+        level = undoLevel;
+        nextPiece = undoNextPiece;
+        nextPiece.rotate(undoNextRotation - nextPiece.getRotation());
+        followingPieces = undoFollowingPieces;
+        followingPieces.rotate(undoFollowingRotation - followingPieces.getRotation());
+        // the piece dealt after the placement goes back to the front of the queue, so it is dealt again next
+        if (upcoming != null && !upcoming.untake()) {
+            logger.warn("Could not put the dealt piece back in the queue");
+        }
+        logger.info("Undid the last placement");
+        listener.undone(true);
+        statsChanged();
+        piecesChanged();
+        resetTimer();
+        return true;
+    }
+
+    /**
+     * Check whether either of the held pieces can be placed anywhere on the board, in any rotation
+     *
+     * @return true if the player has a legal move
+     */
+    public boolean hasLegalMove() {
+        return grid.hasLegalPlacement(nextPiece) || grid.hasLegalPlacement(followingPieces);
+    }
+
+    /**
+     * Apply the no move action for as long as the player has no legal move, so a stuck board is dealt with straight
+     * away instead of waiting for the timer
+     *
+     * @return true if the game carries on, false if it ended
+     */
+    private boolean checkForLegalMove() {
+        while (!hasLegalMove()) {
+            logger.debug("No legal move for {} or {}", nextPiece, followingPieces);
+            if (noMoveAction == NoMoveAction.END_GAME || lives == 0) {
+                endGame();
+                return false;
+            }
+            loseLife();
+        }
+        return true;
+    }
+
+    /**
+     * Set what happens when neither held piece can be placed anywhere
+     *
+     * @param noMoveAction the action to take
+     */
+    public void setNoMoveAction(NoMoveAction noMoveAction) {
+        this.noMoveAction = noMoveAction;
+    }
+
+    /**
+     * Calculates the delay for the game loop timer based on the current game level.
+     * The delay decreases as the level increases, down to a minimum of 2.5 seconds.
+     *
+     * @return The calculated delay in milliseconds for the game loop timer.
+     */
+    public int getTimerDelay() {
+        // the base delay is 12 seconds, and every level takes half a second off it
+        return Math.max(2500, 12000 - (500 * level));
+    }
+
+    /**
+     * Starts the game loop by scheduling the next timeout, which runs the gameLoop method after the timer delay
+     */
+    public void startGameLoop() {
+        int delay = getTimerDelay();
+        scheduler.schedule(delay, this::gameLoop);
+        listener.timerStarted(delay);
+    }
+
+    /**
+     * Run when the timer runs out: the player loses a life, or the game ends if there are none left
+     */
+    public void gameLoop() {
+        logger.debug("Lives: {}", lives);
+        if (lives > 0) {
+            loseLife();
+        } else {
+            endGame();
+            return;
+        }
+        // the new pieces might not fit either
+        if (checkForLegalMove()) {
+            resetTimer();
+        }
+    }
+
+    /**
+     * Take a life from the player, reset the multiplier and move on to the next piece
+     */
+    private void loseLife() {
+        // the pieces move on, so the last placement can no longer be undone
+        canUndo = false;
+        lives--;
+        logger.debug("Decrementing lives to {} and resetting multiplier.", lives);
+        multiplier = 1;
+        statsChanged();
+        nextPiece();
+        listener.lifeLost(lives);
+    }
+
+    /**
+     * Stop the game loop by cancelling the pending timeout
+     */
+    public void stopGameLoop() {
+        scheduler.cancel();
+        listener.timerStopped();
+    }
+
+    /**
+     * Restart the game loop timer with the delay for the current level
+     */
+    public void resetTimer() {
+        if (gameOver) {
+            return;
+        }
+        stopGameLoop();
+        startGameLoop();
+    }
+
+    /**
+     * Move a simulated clock forward and run the game loop if its timer has run out. A fixed step clock moves by one
+     * step, and an as fast as possible clock jumps straight to the end of the timer. Does nothing on a real time
+     * clock, which moves by itself.
+     *
+     * @return true if the timer ran out and the game loop ran
+     */
+    public boolean advanceClock() {
+        switch (clock.getMode()) {
+            case FIXED_STEP:
+                clock.step();
+                return scheduler.runDue();
+            case AS_FAST_AS_POSSIBLE:
+                return scheduler.runNext();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Move a simulated clock forward by the time a player spends thinking about a move. If the game loop timer runs
+     * out first, the clock only moves to the end of the timer and the game loop runs, so the turn is lost. Does
+     * nothing on a real time clock, which moves by itself.
+     *
+     * @param millis the time to move forward, in milliseconds
+     * @return true if the timer ran out and the game loop ran
+     */
+    public boolean advanceClockBy(long millis) {
+        if (clock.isRealTime()) {
+            return false;
+        }
+        long target = clock.nanoTime() + millis * 1_000_000;
+        long deadline = scheduler.getDeadline();
+        if (deadline >= 0 && deadline <= target) {
+            clock.advanceTo(deadline);
+            return scheduler.runDue();
+        }
+        clock.advanceTo(target);
+        return false;
+    }
+
+    /**
+     * Get the time left before the game loop timer runs out on a simulated clock
+     *
+     * @return the time left in milliseconds, or -1 if no simulated timer is running
+     */
+    public long getTimeRemaining() {
+        long deadline = scheduler.getDeadline();
+        if (deadline < 0) {
+            return -1;
+        }
+        return Math.max(0, deadline - clock.nanoTime()) / 1_000_000;
+    }
+
+    /**
+     * End the game and stop the timer. Does nothing if the game has already ended.
+     */
+    public void endGame() {
+        if (gameOver) {
+            return;
+        }
+        gameOver = true;
+        logger.info("Game over with a score of {}", score);
+        stopGameLoop();
+        listener.gameEnded();
+    }
+
+    /**
+     * Tell the listener the held pieces changed
+     */
+    private void piecesChanged() {
+        publishSnapshot();
+        listener.piecesChanged(nextPiece, followingPieces);
+    }
+
+    /**
+     * Tell the listener the score, level, lives or multiplier changed
+     */
+    private void statsChanged() {
+        listener.statsChanged(score, level, lives, multiplier);
+    }
+
+    /**
+     * Take an immutable snapshot of the game. Must be called on the thread that runs the game, the snapshot itself can
+     * then be read anywhere.
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(score, level, lives, multiplier,
+                new GamePiece[]{nextPiece, followingPieces}, upcomingHash(), grid.snapshot());
+    }
+
+    /**
+     * Take a new snapshot and make it the latest one, if snapshots are published
+     */
+    private void publishSnapshot() {
+        if (publishSnapshots) {
+            latestSnapshot = snapshot();
+        }
+    }
+
+    /**
+     * Get the latest published snapshot of the game, updated after every placement, rotation, swap and lost life.
+     * Safe to call from any thread.
+     *
+     * @return the latest snapshot, or null before the game has started or when snapshots are not published
+     */
+    public GameSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Get a 64 bit Zobrist hash of the position: the blocks of the grid, the held pieces with their rotations and the
+     * pieces queued after them. The grid and queue parts are kept up to date as they change, so this is cheap enough
+     * to call after every move, for example to key a transposition table or to check that two clients agree.
+     *
+     * @return the hash
+     */
+    public long getPositionHash() {
+        return grid.getHash()
+                ^ Zobrist.pieceKey(0, nextPiece.getPieceNumber(), nextPiece.getRotation())
+                ^ Zobrist.pieceKey(1, followingPieces.getPieceNumber(), followingPieces.getRotation())
+                ^ upcomingHash();
+    }
+
+    /**
+     * Get the hash of the pieces queued after the held pieces
+     *
+     * @return the hash, or 0 before the game has been initialised
+     */
+    private long upcomingHash() {
+        PieceQueue queue = upcoming;
+        return queue == null ? 0 : queue.getHash();
+    }
+
+    /**
+     * Get the grid model representing the board
+     *
+     * @return game grid model
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Get the number of columns in this game
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this game
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the clock the game loop timer is measured on
+     *
+     * @return the clock
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the score
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the level
+     *
+     * @return the level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the lives left
+     *
+     * @return the lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the score multiplier
+     *
+     * @return the multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Check whether the game has ended
+     *
+     * @return true once the game is over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Get the piece that will be placed next
+     *
+     * @return the next piece
+     */
+    public GamePiece getNextPiece() {
+        return nextPiece;
+    }
+
+    /**
+     * Get the piece after the next one
+     *
+     * @return the following piece
+     */
+    public GamePiece getFollowingPieces() {
+        return followingPieces;
+    }
+
+    /**
+     * Get the pieces that will be dealt after the held pieces. The queue can be read from any thread.
+     *
+     * @return the upcoming pieces, or null before the game has been initialised
+     */
+    public PieceQueue getUpcoming() {
+        return upcoming;
+    }
+}
@@ -17,19 +17,14 @@ public class GamePiece {
     public static final int PIECES = 15;
 
     /**
-     * The 2D grid representation of the shape of this piece
+     * The number of this piece, used to look up its shape in the PieceShapes registry
      */
-    private int[][] blocks;
+    private final int piece;
 
     /**
-     * The value of this piece
+     * The current rotation of this piece, from 0 to 3
      */
-    private final int value;
-
-    /**
-     * The name of this piece
-     */
-    private final String name;
+    private int rotation;
 
     /**
      * Create a new GamePiece of the specified piece number
@@ -38,100 +33,7 @@ public class GamePiece {
      * @return the created GamePiece
      */
     public static GamePiece createPiece(int piece) {
-        switch (piece) {
-            //Line
-            case 0 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {0, 0, 0}};
-                return new GamePiece("Line", blocks, 1);
-            }
-
-            //C
-            case 1 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {1, 0, 1}};
-                return new GamePiece("C", blocks, 2);
-            }
-
-            //Plus
-            case 2 -> {
-                int[][] blocks = {{0, 1, 0}, {1, 1, 1}, {0, 1, 0}};
-                return new GamePiece("Plus", blocks, 3);
-            }
-
-            //Dot
-            case 3 -> {
-                int[][] blocks = {{0, 0, 0}, {0, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Dot", blocks, 4);
-            }
-
-            //Square
-            case 4 -> {
-                int[][] blocks = {{1, 1, 0}, {1, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Square", blocks, 5);
-            }
-
-            //L
-            case 5 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 1}, {0, 0, 1}};
-                return new GamePiece("L", blocks, 6);
-            }
-
-            //J
-            case 6 -> {
-                int[][] blocks = {{0, 0, 1}, {1, 1, 1}, {0, 0, 0}};
-                return new GamePiece("J", blocks, 7);
-            }
-
-            //S
-            case 7 -> {
-                int[][] blocks = {{0, 0, 0}, {0, 1, 1}, {1, 1, 0}};
-                return new GamePiece("S", blocks, 8);
-            }
-
-            //Z
-            case 8 -> {
-                int[][] blocks = {{1, 1, 0}, {0, 1, 1}, {0, 0, 0}};
-                return new GamePiece("Z", blocks, 9);
-            }
-
-            //T
-            case 9 -> {
-                int[][] blocks = {{1, 0, 0}, {1, 1, 0}, {1, 0, 0}};
-                return new GamePiece("T", blocks, 10);
-            }
-
-            //X
-            case 10 -> {
-                int[][] blocks = {{1, 0, 1}, {0, 1, 0}, {1, 0, 1}};
-                return new GamePiece("X", blocks, 11);
-            }
-
-            //Corner
-            case 11 -> {
-                int[][] blocks = {{0, 0, 0}, {1, 1, 0}, {1, 0, 0}};
-                return new GamePiece("Corner", blocks, 12);
-            }
-
-            //Inverse Corner
-            case 12 -> {
-                int[][] blocks = {{1, 0, 0}, {1, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Inverse Corner", blocks, 13);
-            }
-
-            //Diagonal
-            case 13 -> {
-                int[][] blocks = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
-                return new GamePiece("Diagonal", blocks, 14);
-            }
-
-            //Double
-            case 14 -> {
-                int[][] blocks = {{0, 1, 0}, {0, 1, 0}, {0, 0, 0}};
-                return new GamePiece("Double", blocks, 15);
-            }
-        }
-
-        //Not a valid piece number
-        throw new IndexOutOfBoundsException("No such piece: " + piece);
+        return createPiece(piece, 0);
     }
 
     /**
@@ -142,32 +44,23 @@ public class GamePiece {
      * @return the created GamePiece
      */
     public static GamePiece createPiece(int piece, int rotation) {
-        var newPiece = createPiece(piece);
-
-        newPiece.rotate(rotation);
-        return newPiece;
+        if (piece < 0 || piece >= PIECES) {
+            //Not a valid piece number
+            throw new IndexOutOfBoundsException("No such piece: " + piece);
+        }
+        return new GamePiece(piece, Math.floorMod(rotation, PieceShapes.ROTATIONS));
     }
 
     /**
-     * Create a new GamePiece with the given name, block makeup and value. Should not be called directly, only via the
+     * Create a new GamePiece with the given piece number and rotation. Should not be called directly, only via the
      * factory.
      *
-     * @param name   name of the piece
-     * @param blocks block makeup of the piece
-     * @param value  the value of this piece
-     */
-    public GamePiece(String name, int[][] blocks, int value) {
-        this.name = name;
-        this.blocks = blocks;
-        this.value = value;
-
-        //Use the shape of the block to create a grid with either 0 (empty) or the value of this shape for each block.
-        for (int x = 0; x < blocks.length; x++) {
-            for (int y = 0; y < blocks[x].length; y++) {
-                if (blocks[x][y] == 0) continue;
-                blocks[x][y] = value;
-            }
-        }
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     */
+    private GamePiece(int piece, int rotation) {
+        this.piece = piece;
+        this.rotation = rotation;
     }
 
     /**
@@ -176,16 +69,53 @@ public class GamePiece {
      * @return piece value
      */
     public int getValue() {
-        return value;
+        return piece + 1;
     }
 
     /**
-     * Get the block makeup of this piece
+     * Get the number of this piece
+     *
+     * @return piece number
+     */
+    public int getPieceNumber() {
+        return piece;
+    }
+
+    /**
+     * Get the current rotation of this piece
+     *
+     * @return rotation from 0 to 3
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Get the block makeup of this piece. The array is shared between pieces and must not be modified.
      *
      * @return 2D grid of the blocks representing the piece shape
      */
     public int[][] getBlocks() {
-        return blocks;
+        return PieceShapes.blocks(piece, rotation);
+    }
+
+    /**
+     * Get the block makeup of this piece as a mask
+     *
+     * @return the mask, bit (y * 3 + x) set for every block
+     */
+    public int getMask() {
+        return PieceShapes.mask(piece, rotation);
+    }
+
+    /**
+     * Get a single row of this piece as a mask
+     *
+     * @param row the row of the 3x3 grid
+     * @return the row mask, bit x set for every block in the row
+     */
+    public int getRowMask(int row) {
+        return PieceShapes.rowMask(piece, rotation, row);
     }
 
     /**
@@ -194,31 +124,50 @@ public class GamePiece {
      * @param rotations number of rotations
      */
     public void rotate(int rotations) {
-        for (int rotated = 0; rotated < rotations; rotated++) {
-            rotate();
-        }
+        rotation = Math.floorMod(rotation + rotations, PieceShapes.ROTATIONS);
     }
 
     /**
-     * Rotate this piece exactly once by rotating it's 3x3 grid
+     * Rotate this piece exactly once by moving to the next precomputed rotation
      */
     public void rotate() {
-        int[][] rotated = new int[blocks.length][blocks[0].length];
-        rotated[2][0] = blocks[0][0];
-        rotated[1][0] = blocks[0][1];
-        rotated[0][0] = blocks[0][2];
+        rotate(1);
+    }
 
-        rotated[2][1] = blocks[1][0];
-        rotated[1][1] = blocks[1][1];
-        rotated[0][1] = blocks[1][2];
 
-        rotated[2][2] = blocks[2][0];
-        rotated[1][2] = blocks[2][1];
-        rotated[0][2] = blocks[2][2];
+    /**
+     * Check whether another piece is the same kind of piece as this one, whatever the rotations
+     *
+     * @param other the other piece, may be null
+     * @return true if both have the same piece number
+     */
+    public boolean isSamePiece(GamePiece other) {
+        return other != null && other.piece == piece;
+    }
 
-        blocks = rotated;
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Two pieces are equal when they are the same piece in the same rotation, so they cover the same blocks.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj instanceof GamePiece) {
+            GamePiece other = (GamePiece) obj;
+            return piece == other.piece && rotation == other.rotation;
+        } else return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The hash changes when the piece is rotated, so a piece should not be rotated while it is a key in a hash map.
+     */
+    @Override
+    public int hashCode() {
+        return piece * PieceShapes.ROTATIONS + rotation;
+    }
 
     /**
      * Return the string representation of this piece
@@ -226,7 +175,7 @@ public class GamePiece {
      * @return the name of this piece
      */
     public String toString() {
-        return this.name;
+        return PieceShapes.name(piece);
     }
 
 
@@ -0,0 +1,203 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameScheduler runs a single pending timeout for a game, such as the game loop timer, and lets it be rescheduled
+ * or cancelled at any time.
+ * <p>
+ * All schedulers share one long-lived daemon thread, so rescheduling never creates a thread. When a timeout expires
+ * the task is handed to the dispatcher given to the scheduler (for example the JavaFX application thread), and a
+ * timeout that was rescheduled or cancelled while it was being handed over is dropped instead of run.
+ * <p>
+ * Timeouts are measured on the scheduler's {@link GameClock}. A real time clock uses the timer thread, with delays
+ * shortened or stretched by the clock rate. A simulated clock never touches the timer thread: the timeout only
+ * remembers its deadline, and fires on the calling thread from {@link #runDue()} or {@link #runNext()} once the clock
+ * has been moved past it.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class GameScheduler {
+
+    private static final Logger logger = LogManager.getLogger(GameScheduler.class);
+
+    /**
+     * The single timer thread shared by every scheduler
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    /**
+     * The clock timeouts are measured on
+     */
+    private final GameClock clock;
+
+    /**
+     * Where expired tasks are run
+     */
+    private final Executor dispatcher;
+
+    /**
+     * Counts every schedule and cancel, so an expiry can tell whether it is still the current one
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The pending timeout, if there is one
+     */
+    private ScheduledFuture<?> pending;
+
+    /**
+     * The task of the pending timeout on a simulated clock, or null
+     */
+    private Runnable simulatedTask;
+
+    /**
+     * The deadline of the pending timeout on a simulated clock, in clock nanoseconds
+     */
+    private long simulatedDeadline;
+
+    /**
+     * Create a new real time scheduler that runs its tasks through the given dispatcher
+     *
+     * @param dispatcher the executor expired tasks are handed to
+     */
+    public GameScheduler(Executor dispatcher) {
+        this(GameClock.realTime(), dispatcher);
+    }
+
+    /**
+     * Create a new scheduler on the given clock that runs its tasks through the given dispatcher
+     *
+     * @param clock      the clock timeouts are measured on
+     * @param dispatcher the executor expired tasks are handed to, only used by a real time clock
+     */
+    public GameScheduler(GameClock clock, Executor dispatcher) {
+        this.clock = clock;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Create the shared timer thread
+     *
+     * @return the timer
+     */
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "TetrECS game timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // cancelled timeouts are removed straight away instead of waiting in the queue until they would have expired
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Schedule a task to run after a delay, replacing any timeout that is still pending
+     *
+     * @param delayMillis the delay in milliseconds
+     * @param task        the task to run
+     */
+    public synchronized void schedule(long delayMillis, Runnable task) {
+        cancel();
+        if (!clock.isRealTime()) {
+            // a simulated timeout just waits for the clock to reach its deadline
+            simulatedDeadline = clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            simulatedTask = task;
+            return;
+        }
+        // a faster clock reaches the deadline sooner in real time
+        long delayNanos = (long) (TimeUnit.MILLISECONDS.toNanos(delayMillis) / clock.getRate());
+        long scheduled = generation.get();
+        pending = TIMER.schedule(() -> dispatcher.execute(() -> {
+            // a reschedule or cancel since this timeout was set means it no longer applies
+            if (generation.get() == scheduled) {
+                task.run();
+            } else {
+                logger.debug("Dropping a stale timeout");
+            }
+        }), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancel the pending timeout, if there is one
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        simulatedTask = null;
+    }
+
+    /**
+     * Run the pending simulated timeout if the clock has reached its deadline
+     *
+     * @return true if a timeout was run
+     */
+    public boolean runDue() {
+        Runnable task;
+        synchronized (this) {
+            if (simulatedTask == null || clock.nanoTime() < simulatedDeadline) {
+                return false;
+            }
+            task = simulatedTask;
+            simulatedTask = null;
+        }
+        // run outside the lock, the task is allowed to schedule the next timeout
+        task.run();
+        return true;
+    }
+
+    /**
+     * Move a simulated clock straight to the deadline of the pending timeout and run it
+     *
+     * @return true if a timeout was run, false if none was pending
+     */
+    public boolean runNext() {
+        synchronized (this) {
+            if (simulatedTask == null) {
+                return false;
+            }
+            clock.advanceTo(simulatedDeadline);
+        }
+        return runDue();
+    }
+
+    /**
+     * Check whether a simulated timeout is waiting for the clock
+     *
+     * @return true if a timeout is pending on a simulated clock
+     */
+    public synchronized boolean hasPending() {
+        return simulatedTask != null;
+    }
+
+    /**
+     * Get the deadline of the pending simulated timeout
+     *
+     * @return the deadline in clock nanoseconds, or -1 if none is pending
+     */
+    public synchronized long getDeadline() {
+        return simulatedTask == null ? -1 : simulatedDeadline;
+    }
+
+    /**
+     * Get the clock timeouts are measured on
+     *
+     * @return the clock
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+}
@@ -0,0 +1,155 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GameSnapshot is an immutable copy of the state of a Game at one moment: the score, level, lives and multiplier,
+ * the held pieces and a snapshot of the grid. Its hash also covers the pieces queued after the held pieces.
+ * <p>
+ * All the fields are final and the arrays are private copies, so a snapshot can be handed to any thread, for example
+ * for analytics, autosave, network sync or an AI, and read without locks.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class GameSnapshot {
+
+    private final int score;
+    private final int level;
+    private final int lives;
+    private final int multiplier;
+
+    /**
+     * The piece numbers of the queue, the piece to play first
+     */
+    private final int[] pieces;
+
+    /**
+     * The rotations of the pieces in the queue
+     */
+    private final int[] rotations;
+
+    /**
+     * The blocks of the grid
+     */
+    private final GridSnapshot grid;
+
+    /**
+     * The Zobrist hash of the grid, the held pieces and the pieces queued after them
+     */
+    private final long hash;
+
+    /**
+     * Create a new snapshot of a game
+     *
+     * @param score      the score
+     * @param level      the level
+     * @param lives      the lives left
+     * @param multiplier the multiplier
+     * @param queue      the held pieces, the piece to play first
+     * @param upcoming   the hash of the pieces queued after the held pieces, see {@link PieceQueue#getHash()}
+     * @param grid       the snapshot of the grid
+     */
+    GameSnapshot(int score, int level, int lives, int multiplier, GamePiece[] queue, long upcoming,
+                 GridSnapshot grid) {
+        this.score = score;
+        this.level = level;
+        this.lives = lives;
+        this.multiplier = multiplier;
+        this.grid = grid;
+
+        // keep only the numbers, the pieces themselves can still be rotated
+        this.pieces = new int[queue.length];
+        this.rotations = new int[queue.length];
+        long queueHash = 0;
+        for (int i = 0; i < queue.length; i++) {
+            pieces[i] = queue[i].getPieceNumber();
+            rotations[i] = queue[i].getRotation();
+            queueHash ^= Zobrist.pieceKey(i, pieces[i], rotations[i]);
+        }
+        this.hash = grid.getHash() ^ queueHash ^ upcoming;
+    }
+
+    /**
+     * Get the score
+     *
+     * @return score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the level
+     *
+     * @return level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the lives left
+     *
+     * @return lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the multiplier
+     *
+     * @return multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Get the number of upcoming pieces in the snapshot
+     *
+     * @return the length of the queue
+     */
+    public int getQueueLength() {
+        return pieces.length;
+    }
+
+    /**
+     * Get the piece number of an upcoming piece
+     *
+     * @param index 0 for the piece to play next
+     * @return piece number
+     */
+    public int getQueuedPiece(int index) {
+        return pieces[index];
+    }
+
+    /**
+     * Get the rotation of an upcoming piece
+     *
+     * @param index 0 for the piece to play next
+     * @return rotation from 0 to 3
+     */
+    public int getQueuedRotation(int index) {
+        return rotations[index];
+    }
+
+    /**
+     * Get the Zobrist hash of the grid, the held pieces and the pieces queued after them, the same as
+     * {@link Game#getPositionHash()} when the snapshot was taken
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the snapshot of the grid
+     *
+     * @return grid snapshot
+     */
+    public GridSnapshot getGrid() {
+        return grid;
+    }
+
+}
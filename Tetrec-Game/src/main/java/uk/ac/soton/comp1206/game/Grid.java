@@ -1,7 +1,5 @@
 package uk.ac.soton.comp1206.game;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,8 +8,12 @@ import org.apache.logging.log4j.Logger;
  * The Grid is a model which holds the state of a game board. It is made up of a set of Integer values arranged in a 2D
  * arrow, with rows and columns.
  * <p>
- * Each value inside the Grid is an IntegerProperty can be bound to enable modification and display of the contents of
- * the grid.
+ * Internally the grid is a bitboard: every row is packed into one or more {@code long} occupancy words (bit x of the
+ * row is set when the block at column x is filled) and the colour of every block is kept in a compact {@code byte}
+ * plane. Checking whether a piece fits is therefore a handful of mask ANDs instead of reading every block.
+ * <p>
+ * The grid is plain Java. To bind a display to it, wrap it in a {@link GridProperties}, which views every block as an
+ * IntegerProperty and is kept in step through the grid's block changed listener.
  * <p>
  * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
  * <p>
@@ -38,9 +40,112 @@ public class Grid {
     private final int rows;
 
     /**
-     * The grid is a 2D arrow with rows and columns of SimpleIntegerProperties.
+     * The number of 64 bit occupancy words used for a single row
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The occupancy bitboard, one array of words per row. Bit (x % 64) of word (x / 64) of row y is set when the block
+     * at column x and row y is filled. Rows are separate arrays so a snapshot can share them and a change only copies
+     * the row it touches.
+     */
+    private final long[][] occupancy;
+
+    /**
+     * The colour plane, one byte per block with a separate array per row, at index x of row y. 0 means empty.
+     */
+    private final byte[][] colours;
+
+    /**
+     * The number of snapshots taken. A row whose owner is not the current generation may be shared with a snapshot.
+     */
+    private int generation;
+
+    /**
+     * The generation in which every row was last copied, so the grid owns it and can change it in place
+     */
+    private final int[] rowOwner;
+
+    /**
+     * The number of filled blocks in every row
+     */
+    private final int[] rowFill;
+
+    /**
+     * The number of filled blocks in every column
+     */
+    private final int[] colFill;
+
+    /**
+     * The most changed blocks the dirty list holds before it gives up and reports the whole grid as changed
+     */
+    private static final int DIRTY_CAPACITY = 4096;
+
+    /**
+     * Bit (y * cols + x) is set when the block is already in the dirty list. Null while dirty tracking is off.
+     */
+    private long[] dirtyBits;
+
+    /**
+     * The indexes (y * cols + x) of the blocks changed since the dirty list was last drained
+     */
+    private int[] dirtyList;
+
+    /**
+     * The number of entries in the dirty list
+     */
+    private int dirtyCount;
+
+    /**
+     * Set when more blocks changed than the dirty list can hold
      */
-    private final SimpleIntegerProperty[][] grid;
+    private boolean dirtyOverflow;
+
+    /**
+     * A journal entry that marks a point the grid can be rolled back to
+     */
+    private static final long MARK = -1L;
+
+    /**
+     * The mutation journal, a ring buffer of packed block changes (index &lt;&lt; 16 | old value &lt;&lt; 8 | new value)
+     * and marks. Null while the journal is off.
+     */
+    private long[] journal;
+
+    /**
+     * The position after the last applied journal entry. Positions count up forever and wrap around the ring.
+     */
+    private long journalHead;
+
+    /**
+     * The position after the last entry that can be redone
+     */
+    private long journalEnd;
+
+    /**
+     * The position of the oldest entry still in the ring
+     */
+    private long journalOldest;
+
+    /**
+     * Set while the journal itself is changing the grid, so those changes are not journalled again
+     */
+    private boolean replaying;
+
+    /**
+     * The Zobrist hash of the blocks, kept up to date on every change
+     */
+    private long hash;
+
+    /**
+     * The snapshot of the current state, if one has been taken since the last change
+     */
+    private GridSnapshot snapshot;
+
+    /**
+     * Called with the column and row of every block that changes, or null
+     */
+    private BlockVisitor blockChangedListener;
 
 
     /**
@@ -53,26 +158,25 @@ public class Grid {
         this.cols = cols;
         this.rows = rows;
 
-        //Create the grid itself
-        grid = new SimpleIntegerProperty[cols][rows];
+        //Create the bitboard and the colour plane, every block starts empty
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.occupancy = new long[rows][wordsPerRow];
+        this.colours = new byte[rows][cols];
+        this.rowOwner = new int[rows];
 
-        //Add a SimpleIntegerProperty to every block in the grid
-        for (var y = 0; y < rows; y++) {
-            for (var x = 0; x < cols; x++) {
-                grid[x][y] = new SimpleIntegerProperty(0);
-            }
-        }
+        //Every row and column starts with no filled blocks
+        this.rowFill = new int[rows];
+        this.colFill = new int[cols];
     }
 
     /**
-     * Get the Integer property contained inside the grid at a given row and column index. Can be used for binding.
+     * Set the listener called with the column and row of every block that changes. A grid has one such listener,
+     * normally the {@link GridProperties} that views it.
      *
-     * @param x column
-     * @param y row
-     * @return the IntegerProperty at the given x and y in this grid
+     * @param listener the listener, or null for none
      */
-    public IntegerProperty getGridProperty(int x, int y) {
-        return grid[x][y];
+    public void setOnBlockChanged(BlockVisitor listener) {
+        this.blockChangedListener = listener;
     }
 
     /**
@@ -84,29 +188,207 @@ public class Grid {
      * @return true whether their place to play or false whether no place to play
      */
     public boolean canPlayPiece(GamePiece gamePiece, int x, int y) {
-        int[][] blocks = gamePiece.getBlocks(); // 3 * 3 array representing the game blocks
         x -= 1; // assign x to the center
         y -= 1; // assign y to the center
-        logger.info("Checking if a piece can placed or not " + x + "," + y);
-        for (int blockX = 0; blockX < blocks.length; blockX++) { // iterate through the grid columns
-            for (int blockY = 0; blockY < blocks[blockX].length; blockY++) {// iterate through the rows of the grid
-                if (blocks[blockX][blockY] == 0)
-                    continue;
-                int gridX = x + blockX;
-                int gridY = y + blockY;
-                // this condition is to make sure that the block is not exceeding the grid and that it is not negative
-                // and also check if the block is already occupied
-                if (gridX < 0 || gridX >= this.getCols() || gridY < 0 || gridY >= this.getRows() || this.get(gridX, gridY) != 0) {
-                    logger.info("Block at (" + gridX + "," + gridY + ") cannot be placed.");
-                    return false;
-                }
+        logger.trace("Checking if a piece can placed or not {},{}", x, y);
+        for (int blockY = 0; blockY < PieceShapes.SIZE; blockY++) { // iterate through the rows of the piece
+            // the row of the piece as a mask, bit blockX is set when the piece has a block there
+            int rowMask = gamePiece.getRowMask(blockY);
+            // the whole row has to be inside the grid and on empty blocks
+            if (!rowFits(rowMask, x, y + blockY)) {
+                logger.trace("Row {} of the piece cannot be placed.", y + blockY);
+                return false;
             }
         }
 
-        logger.info("There is place for the block to be placed at (" + x + "," + y + ")");
+        logger.trace("There is place for the block to be placed at ({},{})", x, y);
         return true;// there is a place to for the block
     }
 
+    /**
+     * Check that a row mask of a piece, starting at the given column, lies inside the grid and only covers empty blocks
+     *
+     * @param rowMask the row of the piece, bit n set when there is a block n columns right of x
+     * @param x       the column of bit 0 of the mask
+     * @param y       the row the mask is placed on
+     * @return true if the row can be placed
+     */
+    private boolean rowFits(int rowMask, int x, int y) {
+        if (rowMask == 0) {
+            return true;
+        }
+        if (y < 0 || y >= rows) {
+            return false;
+        }
+        // blocks hanging off the left edge
+        if (x < 0) {
+            if (x <= -32 || (rowMask & ((1 << -x) - 1)) != 0) {
+                return false;
+            }
+            rowMask >>>= -x;
+            x = 0;
+        }
+        // blocks hanging off the right edge
+        if (x + 32 - Integer.numberOfLeadingZeros(rowMask) > cols) {
+            return false;
+        }
+        return (rowBits(x, y) & rowMask) == 0;
+    }
+
+    /**
+     * Read the occupancy of a row starting at the given column, bit 0 of the result being column x
+     *
+     * @param x the first column to read
+     * @param y the row to read
+     * @return the occupancy bits from column x onwards (at least 32 of them, unless the row ends first)
+     */
+    private long rowBits(int x, int y) {
+        int word = x >>> 6;
+        int offset = x & 63;
+        long[] row = occupancy[y];
+        long bits = row[word] >>> offset;
+        // pull in the start of the next word when the read crosses a word boundary
+        if (offset != 0 && word + 1 < wordsPerRow) {
+            bits |= row[word + 1] << (64 - offset);
+        }
+        return bits;
+    }
+
+    /**
+     * Work out every legal centre position of a piece in all four rotations
+     *
+     * @param gamePiece the piece to place, its current rotation does not matter
+     * @return a new map of the legal placements
+     */
+    public PlacementMap legalPlacements(GamePiece gamePiece) {
+        PlacementMap placements = new PlacementMap(cols, rows);
+        legalPlacements(gamePiece, placements);
+        return placements;
+    }
+
+    /**
+     * Work out every legal centre position of a piece in all four rotations, filling in an existing map.
+     * <p>
+     * Rather than trying every position, the free blocks of each row are shifted so that, for every block of the
+     * piece, bit x lines up with the block the piece would cover if its centre was in column x. ANDing those rows
+     * together leaves exactly the legal centres, 64 columns at a time.
+     *
+     * @param gamePiece  the piece to place, its current rotation does not matter
+     * @param placements the map to fill, made for a grid of this size
+     */
+    public void legalPlacements(GamePiece gamePiece, PlacementMap placements) {
+        if (placements.getCols() != cols || placements.getRows() != rows) {
+            throw new IllegalArgumentException("Placement map is " + placements.getCols() + " x " + placements.getRows()
+                    + " but the grid is " + cols + " x " + rows);
+        }
+        int piece = gamePiece.getPieceNumber();
+        for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+            long[] words = placements.words(rotation);
+            for (int y = 0; y < rows; y++) {
+                for (int word = 0; word < wordsPerRow; word++) {
+                    words[y * wordsPerRow + word] = legalCentres(piece, rotation, y, word);
+                }
+            }
+            placements.recount(rotation);
+        }
+    }
+
+    /**
+     * Check whether a piece can be placed anywhere on the grid in any rotation. Stops at the first legal placement.
+     *
+     * @param gamePiece the piece to place, its current rotation does not matter
+     * @return true if there is at least one legal placement
+     */
+    public boolean hasLegalPlacement(GamePiece gamePiece) {
+        int piece = gamePiece.getPieceNumber();
+        for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+            for (int y = 0; y < rows; y++) {
+                for (int word = 0; word < wordsPerRow; word++) {
+                    if (legalCentres(piece, rotation, y, word) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Work out the legal centre columns of a piece for one 64 column word of one row
+     *
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     * @param y        the row of the centre
+     * @param word     the word of the row, covering columns word * 64 to word * 64 + 63
+     * @return bit x set when the centre can go in column (word * 64 + x)
+     */
+    private long legalCentres(int piece, int rotation, int y, int word) {
+        long legal = columnsInWord(word);
+        for (int row = 0; row < PieceShapes.SIZE && legal != 0; row++) {
+            int rowMask = PieceShapes.rowMask(piece, rotation, row);
+            if (rowMask == 0) {
+                continue;
+            }
+            int gridY = y - 1 + row;
+            if (gridY < 0 || gridY >= rows) {
+                // a row of the piece would be off the grid
+                return 0;
+            }
+            // block n of the piece row covers column (centre - 1 + n)
+            for (int col = 0; col < PieceShapes.SIZE; col++) {
+                if ((rowMask & (1 << col)) != 0) {
+                    legal &= freeShifted(gridY, word, col - 1);
+                }
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Get the free blocks of a row shifted by an offset, so that bit x of the result says whether column
+     * (word * 64 + x + offset) is inside the grid and empty
+     *
+     * @param y      row
+     * @param word   the word of the row
+     * @param offset -1, 0 or 1
+     * @return the shifted free bits
+     */
+    private long freeShifted(int y, int word, int offset) {
+        long free = freeWord(y, word);
+        if (offset < 0) {
+            return (free << 1) | (freeWord(y, word - 1) >>> 63);
+        }
+        if (offset > 0) {
+            return (free >>> 1) | (freeWord(y, word + 1) << 63);
+        }
+        return free;
+    }
+
+    /**
+     * Get the empty blocks of one word of a row. Words outside the row count as full.
+     *
+     * @param y    row
+     * @param word the word of the row
+     * @return bit x set when column (word * 64 + x) is inside the grid and empty
+     */
+    private long freeWord(int y, int word) {
+        if (word < 0 || word >= wordsPerRow) {
+            return 0;
+        }
+        return ~occupancy[y][word] & columnsInWord(word);
+    }
+
+    /**
+     * Get the columns of a word that are inside the grid
+     *
+     * @param word the word of a row
+     * @return bit x set when column (word * 64 + x) exists
+     */
+    private long columnsInWord(int word) {
+        int remaining = cols - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
     /**
      * This method first checks if the piece can be legally placed at the given coordinates without overlapping existing pieces.
      * If the placement is possible, it updates the grid with the game piece's values.
@@ -120,25 +402,23 @@ public class Grid {
      */
     public boolean playPiece(GamePiece gamePiece, int x, int y) {
 
-
         // this method checks if a piece can be placed
-        if (canPlayPiece(gamePiece, x, y)) {
-            x -= 1; // assigning the coordinates  to the center of the grid
-            y -= 1;
-            int[][] blocks = gamePiece.getBlocks();// 3 * 3 array of int blocks
-            for (int blockX = 0; blockX < blocks.length; blockX++) {// loop through each row of the block in the game
-                // within each row loop through each [blockX] -> column of the row
-                for (int blockY = 0; blockY < blocks[blockX].length; blockY++) {
-                    // this get the track coordinates in the loop see if it is occupied or not
-                    if (blocks[blockX][blockY] != 0) {
-                        set(x + blockX, y + blockY, blocks[blockX][blockY]);
+        if (!canPlayPiece(gamePiece, x, y)) {
+            return false;
+        }
 
-                    }
-                }
-            }
+        x -= 1; // assigning the coordinates  to the center of the grid
+        y -= 1;
+        int value = gamePiece.getValue();
+        int mask = gamePiece.getMask();// the 3 * 3 blocks packed as bits
+        // loop through every set bit of the mask, bit (blockY * 3 + blockX) is a block of the piece
+        while (mask != 0) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            set(x + bit % PieceShapes.SIZE, y + bit / PieceShapes.SIZE, value);
         }
 
-        logger.info("Piece successfully placed ");
+        logger.trace("Piece successfully placed");
         return true;// true if the piece can be placed and played
 
     }
@@ -152,7 +432,211 @@ public class Grid {
      * @param value the new value
      */
     public void set(int x, int y, int value) {
-        grid[x][y].set(value);
+        int index = y * cols + x;
+        if (colours[y][x] == value) {
+            return;
+        }
+
+        // update the colour plane and the occupancy bit
+        // the row may be shared with a snapshot, so copy just this row before its first change since
+        snapshot = null;
+        if (rowOwner[y] != generation) {
+            occupancy[y] = occupancy[y].clone();
+            colours[y] = colours[y].clone();
+            rowOwner[y] = generation;
+        }
+
+        int oldValue = colours[y][x];
+        boolean wasFilled = oldValue != 0;
+        colours[y][x] = (byte) value;
+        hash ^= Zobrist.blockKey(index, oldValue) ^ Zobrist.blockKey(index, value);
+        if (value != 0) {
+            occupancy[y][x >>> 6] |= 1L << x;
+        } else {
+            occupancy[y][x >>> 6] &= ~(1L << x);
+        }
+
+        if (journal != null && !replaying) {
+            record(((long) index << 16) | (oldValue << 8) | value);
+        }
+
+        // keep the row and column counters in step when the block is filled or emptied
+        if (!wasFilled && value != 0) {
+            rowFill[y]++;
+            colFill[x]++;
+        } else if (wasFilled && value == 0) {
+            rowFill[y]--;
+            colFill[x]--;
+        }
+
+        if (dirtyBits != null) {
+            markDirty(index);
+        }
+
+        // keep a bound view in step, if there is one
+        if (blockChangedListener != null) {
+            blockChangedListener.visit(x, y);
+        }
+    }
+
+    /**
+     * Start recording which blocks change, so a view can repaint only those blocks. The changes are collected until
+     * {@link #drainDirty(BlockVisitor)} is called.
+     */
+    public void enableDirtyTracking() {
+        if (dirtyBits == null) {
+            dirtyBits = new long[(cols * rows + 63) >>> 6];
+            dirtyList = new int[DIRTY_CAPACITY];
+        }
+    }
+
+    /**
+     * Add a block to the dirty list, once
+     *
+     * @param index the index of the block, y * cols + x
+     */
+    private void markDirty(int index) {
+        if (dirtyOverflow || (dirtyBits[index >>> 6] & (1L << index)) != 0) {
+            return;
+        }
+        if (dirtyCount == dirtyList.length) {
+            // too many changes to list, the whole grid counts as changed
+            dirtyOverflow = true;
+            return;
+        }
+        dirtyBits[index >>> 6] |= 1L << index;
+        dirtyList[dirtyCount++] = index;
+    }
+
+    /**
+     * Visit every block that changed since the last call and empty the dirty list.
+     *
+     * @param visitor the visitor to call for every changed block
+     * @return true if the changed blocks were listed, or false if too many blocks changed and the whole grid should be
+     * treated as changed
+     */
+    public boolean drainDirty(BlockVisitor visitor) {
+        if (dirtyBits == null) {
+            return true;
+        }
+        boolean listed = !dirtyOverflow;
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyList[i];
+            dirtyBits[index >>> 6] &= ~(1L << index);
+            if (listed) {
+                visitor.visit(index % cols, index / cols);
+            }
+        }
+        dirtyCount = 0;
+        dirtyOverflow = false;
+        return listed;
+    }
+
+    /**
+     * Take an immutable snapshot of the blocks of the grid that can be read from any thread. The snapshot shares the
+     * rows of the grid, and the grid copies a row the first time it changes afterwards, so taking a snapshot only
+     * copies the list of rows, a placement only copies the few rows it touches, and taking another snapshot before the
+     * grid changes returns the same snapshot.
+     *
+     * @return the snapshot
+     */
+    public GridSnapshot snapshot() {
+        if (snapshot == null) {
+            // every row is shared from now on, until it is copied on its next change
+            generation++;
+            snapshot = new GridSnapshot(cols, rows, wordsPerRow, occupancy.clone(), colours.clone(), hash);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Start journalling every change to the grid so changes can be rolled back and redone. The journal is a ring
+     * buffer, so once it is full the oldest changes are forgotten.
+     *
+     * @param capacity the number of changes and marks the journal holds
+     */
+    public void enableJournal(int capacity) {
+        journal = new long[capacity];
+        journalHead = 0;
+        journalEnd = 0;
+        journalOldest = 0;
+    }
+
+    /**
+     * Add an entry to the journal at the head, throwing away anything that could have been redone
+     *
+     * @param entry a packed block change or a mark
+     */
+    private void record(long entry) {
+        journal[(int) (journalHead % journal.length)] = entry;
+        journalHead++;
+        journalEnd = journalHead;
+        if (journalEnd - journalOldest > journal.length) {
+            journalOldest = journalEnd - journal.length;
+        }
+    }
+
+    /**
+     * Mark the current state of the grid, so {@link #rollback()} can return to it
+     */
+    public void mark() {
+        if (journal != null) {
+            record(MARK);
+        }
+    }
+
+    /**
+     * Undo every change made since the last mark. The undone changes can be reapplied with {@link #redo()} until the
+     * grid is changed again.
+     *
+     * @return true if the grid was rolled back, false if there is no mark to roll back to
+     */
+    public boolean rollback() {
+        if (journal == null) {
+            return false;
+        }
+        // find the mark first, so a mark that has fallen out of the ring leaves the grid untouched
+        long markAt = journalHead - 1;
+        while (markAt >= journalOldest && journal[(int) (markAt % journal.length)] != MARK) {
+            markAt--;
+        }
+        if (markAt < journalOldest) {
+            return false;
+        }
+
+        replaying = true;
+        for (long position = journalHead - 1; position > markAt; position--) {
+            long entry = journal[(int) (position % journal.length)];
+            int index = (int) (entry >>> 16);
+            set(index % cols, index / cols, (int) (entry >>> 8) & 0xFF);
+        }
+        replaying = false;
+        journalHead = markAt;
+        return true;
+    }
+
+    /**
+     * Reapply the changes undone by the last {@link #rollback()}
+     *
+     * @return true if the grid was rolled forward, false if there is nothing to redo
+     */
+    public boolean redo() {
+        if (journal == null || journalHead == journalEnd) {
+            return false;
+        }
+
+        // skip the mark, then apply changes up to the next mark
+        long position = journalHead + 1;
+        replaying = true;
+        while (position < journalEnd && journal[(int) (position % journal.length)] != MARK) {
+            long entry = journal[(int) (position % journal.length)];
+            int index = (int) (entry >>> 16);
+            set(index % cols, index / cols, (int) entry & 0xFF);
+            position++;
+        }
+        replaying = false;
+        journalHead = position;
+        return true;
     }
 
     /**
@@ -163,13 +647,102 @@ public class Grid {
      * @return the value
      */
     public int get(int x, int y) {
-        try {
-            //Get the value held in the property at the x and y index provided
-            return grid[x][y].get();
-        } catch (ArrayIndexOutOfBoundsException e) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
             //No such index
             return -1;
         }
+        return colours[y][x];
+    }
+
+    /**
+     * Get the Zobrist hash of the blocks of the grid. Two grids of the same size with the same blocks have the same
+     * hash.
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the number of filled blocks in a row
+     *
+     * @param y row
+     * @return number of filled blocks
+     */
+    public int getRowFill(int y) {
+        return rowFill[y];
+    }
+
+    /**
+     * Get the number of filled blocks in a column
+     *
+     * @param x column
+     * @return number of filled blocks
+     */
+    public int getColumnFill(int x) {
+        return colFill[x];
+    }
+
+    /**
+     * Check whether every block in a row is filled
+     *
+     * @param y row
+     * @return true if the row is full
+     */
+    public boolean isRowFull(int y) {
+        return y >= 0 && y < rows && rowFill[y] == cols;
+    }
+
+    /**
+     * Check whether every block in a column is filled
+     *
+     * @param x column
+     * @return true if the column is full
+     */
+    public boolean isColumnFull(int x) {
+        return x >= 0 && x < cols && colFill[x] == rows;
+    }
+
+    /**
+     * Empty every block in the rows and columns of a clear mask
+     *
+     * @param clearMask the full rows and columns to clear
+     */
+    public void clearLines(ClearMask clearMask) {
+        for (int y = clearMask.nextRow(0); y != -1; y = clearMask.nextRow(y + 1)) {
+            clearRow(y);
+        }
+        for (int x = clearMask.nextColumn(0); x != -1; x = clearMask.nextColumn(x + 1)) {
+            clearColumn(x);
+        }
+    }
+
+    /**
+     * Empty every block in a row. Only the filled blocks are visited, found through the occupancy words.
+     *
+     * @param y row
+     */
+    private void clearRow(int y) {
+        for (int word = 0; word < wordsPerRow; word++) {
+            long bits = occupancy[y][word];
+            while (bits != 0) {
+                int x = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                set(x, y, 0);
+            }
+        }
+    }
+
+    /**
+     * Empty every block in a column
+     *
+     * @param x column
+     */
+    private void clearColumn(int x) {
+        for (int y = 0; y < rows; y++) {
+            set(x, y, 0);
+        }
     }
 
     /**
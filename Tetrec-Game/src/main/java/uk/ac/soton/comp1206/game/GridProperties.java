@@ -0,0 +1,90 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * GridProperties is the JavaFX view of a Grid: it shows every block of the grid as an IntegerProperty, so a display
+ * can bind to the grid while the grid itself stays free of JavaFX.
+ * <p>
+ * The properties are only created for the blocks that are actually asked for, so a grid that is never displayed does
+ * not allocate any property objects. Once created, a property follows the grid through its block changed listener, and
+ * a value written to the property is pushed back into the grid.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class GridProperties {
+
+    /**
+     * The grid being viewed
+     */
+    private final Grid grid;
+
+    /**
+     * The property views handed out for binding, created lazily the first time a block is asked for
+     */
+    private final IntegerProperty[] properties;
+
+    /**
+     * Create a property view of the given grid. This takes the grid's block changed listener.
+     *
+     * @param grid the grid to view
+     */
+    public GridProperties(Grid grid) {
+        this.grid = grid;
+        this.properties = new IntegerProperty[grid.getCols() * grid.getRows()];
+        grid.setOnBlockChanged(this::blockChanged);
+    }
+
+    /**
+     * Get the Integer property of the grid at a given row and column index. Can be used for binding.
+     * <p>
+     * The property is created the first time it is requested and kept in sync with the grid from then on.
+     *
+     * @param x column
+     * @param y row
+     * @return the IntegerProperty at the given x and y in the grid
+     */
+    public IntegerProperty getGridProperty(int x, int y) {
+        if (x < 0 || x >= grid.getCols() || y < 0 || y >= grid.getRows()) {
+            throw new IndexOutOfBoundsException("No such block: " + x + "," + y);
+        }
+
+        int index = y * grid.getCols() + x;
+        IntegerProperty property = properties[index];
+        if (property == null) {
+            property = new SimpleIntegerProperty(grid.get(x, y));
+            // if someone writes to the property directly, push the value back into the grid
+            property.addListener((observable, oldValue, newValue) -> {
+                if (grid.get(x, y) != newValue.intValue()) {
+                    grid.set(x, y, newValue.intValue());
+                }
+            });
+            properties[index] = property;
+        }
+        return property;
+    }
+
+    /**
+     * Keep the property of a changed block in step, if one has been created
+     *
+     * @param x column
+     * @param y row
+     */
+    private void blockChanged(int x, int y) {
+        IntegerProperty property = properties[y * grid.getCols() + x];
+        if (property != null) {
+            property.set(grid.get(x, y));
+        }
+    }
+
+    /**
+     * Get the grid being viewed
+     *
+     * @return the grid
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+}
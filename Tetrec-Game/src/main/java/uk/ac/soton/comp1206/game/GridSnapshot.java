@@ -0,0 +1,148 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A GridSnapshot is an immutable copy of the blocks of a Grid at one moment.
+ * <p>
+ * Snapshots share the rows of the grid they were taken from. The grid copies a row the next time it changes it, so
+ * taking a snapshot is cheap, the snapshot never changes afterwards, and rows that do not change stay shared. All the fields are final, so a
+ * snapshot can be handed to any thread and read without locks.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class GridSnapshot {
+
+    /**
+     * The number of columns in the grid
+     */
+    private final int cols;
+
+    /**
+     * The number of rows in the grid
+     */
+    private final int rows;
+
+    /**
+     * The number of 64 bit occupancy words used for a single row
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The occupancy bitboard, laid out like the grid's. Never modified.
+     */
+    private final long[][] occupancy;
+
+    /**
+     * The colour plane, laid out like the grid's. Never modified.
+     */
+    private final byte[][] colours;
+
+    /**
+     * The Zobrist hash of the blocks
+     */
+    private final long hash;
+
+    /**
+     * Create a new snapshot over rows that will not be modified again
+     *
+     * @param cols        number of columns
+     * @param rows        number of rows
+     * @param wordsPerRow number of occupancy words per row
+     * @param occupancy   the occupancy words of every row
+     * @param colours     the colours of every row
+     * @param hash        the Zobrist hash of the blocks
+     */
+    GridSnapshot(int cols, int rows, int wordsPerRow, long[][] occupancy, byte[][] colours, long hash) {
+        this.cols = cols;
+        this.rows = rows;
+        this.wordsPerRow = wordsPerRow;
+        this.occupancy = occupancy;
+        this.colours = colours;
+        this.hash = hash;
+    }
+
+    /**
+     * Get the value of a block
+     *
+     * @param x column
+     * @param y row
+     * @return the value, or -1 if there is no such block
+     */
+    public int get(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return -1;
+        }
+        return colours[y][x];
+    }
+
+    /**
+     * Check whether a block is filled
+     *
+     * @param x column
+     * @param y row
+     * @return true if the block exists and is filled
+     */
+    public boolean isFilled(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        return (occupancy[y][x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * Get the number of filled blocks in a row
+     *
+     * @param y row
+     * @return number of filled blocks
+     */
+    public int getRowFill(int y) {
+        int count = 0;
+        for (int word = 0; word < wordsPerRow; word++) {
+            count += Long.bitCount(occupancy[y][word]);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of filled blocks in the whole grid
+     *
+     * @return number of filled blocks
+     */
+    public int getFilledCount() {
+        int count = 0;
+        for (long[] row : occupancy) {
+            for (long word : row) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the Zobrist hash of the blocks
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the number of columns in the grid
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in the grid
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+}
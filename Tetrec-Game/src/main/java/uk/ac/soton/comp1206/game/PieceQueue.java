@@ -0,0 +1,196 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A PieceQueue holds the pieces that will be dealt after the held pieces, so they can be shown in advance.
+ * <p>
+ * The queue is always full: whenever a piece is taken from the front, a new one is dealt from the sequence onto the
+ * back. Only the thread running the game takes pieces, but any thread can look at the queue without locking. The
+ * pieces live in a ring buffer of twice the highest power of two in the depth, so it always has at least one slot more
+ * than the queue, and a reader checks the position of the front before and after reading, trying again in the rare
+ * case a piece was taken in between.
+ * <p>
+ * The queue keeps a hash of its pieces, front first, up to date as pieces are taken and put back, so the hash of a
+ * position can cover the pieces still to come without walking the whole queue. See {@link Zobrist}.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class PieceQueue {
+
+    /**
+     * Where new pieces come from
+     */
+    private final PieceSequence sequence;
+
+    /**
+     * The number of pieces in the queue
+     */
+    private final int depth;
+
+    /**
+     * Masks a position into the ring buffer
+     */
+    private final int mask;
+
+    /**
+     * The ring buffer of piece numbers
+     */
+    private final int[] slots;
+
+    /**
+     * The position of the front of the queue. Written after the slots, so a reader that sees a position also sees the
+     * pieces behind it.
+     */
+    private volatile long head;
+
+    /**
+     * The position after the last piece dealt from the sequence. One ahead of the back of the queue after a piece was
+     * put back, so dealing it again does not take another piece from the sequence.
+     */
+    private long dealt;
+
+    /**
+     * The hash of the pieces in the queue, front first
+     */
+    private long hash;
+
+    /**
+     * The weight of the piece at the back of the queue in the hash, {@link Zobrist#QUEUE_BASE} to the power depth - 1
+     */
+    private final long backWeight;
+
+    /**
+     * Create a new queue and fill it from the sequence
+     *
+     * @param sequence where the pieces come from
+     * @param depth    the number of pieces to look ahead, at least one
+     */
+    public PieceQueue(PieceSequence sequence, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("A queue holds at least one piece: " + depth);
+        }
+        this.sequence = sequence;
+        this.depth = depth;
+        // at least one spare slot, so the piece being dealt never overwrites one a reader may still want
+        int capacity = Integer.highestOneBit(depth) << 1;
+        this.mask = capacity - 1;
+        this.slots = new int[capacity];
+        long weight = 1;
+        for (int i = 0; i < depth; i++) {
+            slots[i] = sequence.next();
+            hash += Zobrist.queueKey(slots[i]) * weight;
+            if (i < depth - 1) {
+                weight *= Zobrist.QUEUE_BASE;
+            }
+        }
+        this.backWeight = weight;
+        this.dealt = depth;
+    }
+
+    /**
+     * Take the piece at the front of the queue and deal a new one onto the back. Only called by the thread running
+     * the game.
+     *
+     * @return the piece number
+     */
+    public int take() {
+        long front = head;
+        int piece = slots[(int) (front & mask)];
+        // a piece that was put back is still behind the queue, so it is not dealt again
+        if (front + depth == dealt) {
+            slots[(int) (dealt & mask)] = sequence.next();
+            dealt++;
+        }
+        // every piece moves up a place, then the new back piece joins the hash
+        hash = (hash - Zobrist.queueKey(piece)) * Zobrist.QUEUE_BASE_INVERSE
+                + Zobrist.queueKey(slots[(int) ((front + depth) & mask)]) * backWeight;
+        head = front + 1;
+        return piece;
+    }
+
+    /**
+     * Put the piece taken last back at the front of the queue, so it is dealt again next. The piece dealt onto the
+     * back when it was taken stays in the ring and comes back into the queue as it moves on, so the pieces are dealt
+     * in the same order as if nothing was taken. Only called by the thread running the game.
+     *
+     * @return true if the piece was put back, false if nothing was taken since the queue was filled or it was already
+     * put back
+     */
+    public boolean untake() {
+        long front = head;
+        // the ring holds the queue and one more piece, so only one piece can be put back at a time
+        if (front == 0 || dealt - front + 1 > slots.length || dealt > front + depth) {
+            return false;
+        }
+        // the back piece leaves the hash, then every piece moves down a place behind the one put back
+        hash = (hash - Zobrist.queueKey(slots[(int) ((front + depth - 1) & mask)]) * backWeight) * Zobrist.QUEUE_BASE
+                + Zobrist.queueKey(slots[(int) ((front - 1) & mask)]);
+        head = front - 1;
+        return true;
+    }
+
+    /**
+     * Take the piece at the front of the queue as a new GamePiece
+     *
+     * @return the piece
+     */
+    public GamePiece takePiece() {
+        return GamePiece.createPiece(take());
+    }
+
+    /**
+     * Look at a piece in the queue without taking it. Safe to call from any thread.
+     *
+     * @param index the position in the queue, 0 for the front
+     * @return the piece number
+     */
+    public int peek(int index) {
+        if (index < 0 || index >= depth) {
+            throw new IndexOutOfBoundsException("No piece " + index + " in a queue of " + depth);
+        }
+        while (true) {
+            long front = head;
+            int piece = slots[(int) ((front + index) & mask)];
+            // the piece is only good if nothing was taken while it was read
+            if (head == front) {
+                return piece;
+            }
+        }
+    }
+
+    /**
+     * Copy the whole queue, front first. Safe to call from any thread.
+     *
+     * @return the piece numbers
+     */
+    public int[] toArray() {
+        int[] pieces = new int[depth];
+        while (true) {
+            long front = head;
+            for (int i = 0; i < depth; i++) {
+                pieces[i] = slots[(int) ((front + i) & mask)];
+            }
+            if (head == front) {
+                return pieces;
+            }
+        }
+    }
+
+    /**
+     * Get the hash of the pieces in the queue, front first. Only called by the thread running the game.
+     *
+     * @return the hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the number of pieces in the queue
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,265 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * A PieceSequence deals the pieces of a game from a seeded {@link SplittableRandom}, so the same seed always deals the
+ * same pieces.
+ * <p>
+ * Pieces can be dealt in one of three ways:
+ * <ul>
+ *     <li>{@link Kind#UNIFORM} picks every piece with the same chance, like the original game.</li>
+ *     <li>{@link Kind#BAG} shuffles one of every piece into a bag and deals the whole bag before refilling it, so no
+ *     piece is ever missing for long.</li>
+ *     <li>{@link Kind#WEIGHTED} picks pieces with chances in proportion to a weight for every piece.</li>
+ * </ul>
+ * A sequence can be split into an independent one with the same distribution, so simulations running side by side
+ * never share a random source. A sequence itself belongs to one thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class PieceSequence {
+
+    /**
+     * The ways pieces can be dealt
+     */
+    public enum Kind {
+        /**
+         * Every piece is equally likely
+         */
+        UNIFORM,
+        /**
+         * Every piece once per bag, in a shuffled order
+         */
+        BAG,
+        /**
+         * Pieces are picked in proportion to their weights
+         */
+        WEIGHTED
+    }
+
+    /**
+     * How pieces are dealt
+     */
+    private final Kind kind;
+
+    /**
+     * The random source
+     */
+    private final SplittableRandom random;
+
+    /**
+     * The running totals of the weights, for a weighted sequence
+     */
+    private final double[] cumulative;
+
+    /**
+     * The pieces of the current bag, for a bag sequence
+     */
+    private final int[] bag;
+
+    /**
+     * The position of the next piece in the bag
+     */
+    private int bagIndex;
+
+    /**
+     * Create a new sequence. Use the factory methods instead.
+     *
+     * @param kind       how pieces are dealt
+     * @param random     the random source
+     * @param cumulative the running totals of the weights, or null
+     */
+    private PieceSequence(Kind kind, SplittableRandom random, double[] cumulative) {
+        this.kind = kind;
+        this.random = random;
+        this.cumulative = cumulative;
+        if (kind == Kind.BAG) {
+            this.bag = new int[GamePiece.PIECES];
+            for (int piece = 0; piece < GamePiece.PIECES; piece++) {
+                bag[piece] = piece;
+            }
+            // an empty bag is refilled on the first deal
+            this.bagIndex = GamePiece.PIECES;
+        } else {
+            this.bag = null;
+        }
+    }
+
+    /**
+     * Create a sequence that deals every piece with the same chance
+     *
+     * @param seed the seed
+     * @return the sequence
+     */
+    public static PieceSequence uniform(long seed) {
+        return new PieceSequence(Kind.UNIFORM, new SplittableRandom(seed), null);
+    }
+
+    /**
+     * Create a sequence that deals shuffled bags holding one of every piece
+     *
+     * @param seed the seed
+     * @return the sequence
+     */
+    public static PieceSequence bag(long seed) {
+        return new PieceSequence(Kind.BAG, new SplittableRandom(seed), null);
+    }
+
+    /**
+     * The fewest different pieces a sequence has to deal. A game starts with three held pieces that are all
+     * different, so it would never start with fewer.
+     */
+    public static final int MIN_DISTINCT_PIECES = 3;
+
+    /**
+     * Create a sequence that deals pieces with chances in proportion to their weights
+     *
+     * @param seed    the seed
+     * @param weights a weight of zero or more for every piece, at least {@link #MIN_DISTINCT_PIECES} above zero
+     * @return the sequence
+     * @throws IllegalArgumentException if there are not enough weights or too few pieces can be dealt
+     */
+    public static PieceSequence weighted(long seed, double... weights) {
+        if (weights.length != GamePiece.PIECES) {
+            throw new IllegalArgumentException("Need " + GamePiece.PIECES + " weights, got " + weights.length);
+        }
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        int distinct = 0;
+        for (int piece = 0; piece < weights.length; piece++) {
+            if (!(weights[piece] >= 0) || Double.isInfinite(weights[piece])) {
+                throw new IllegalArgumentException("Bad weight for piece " + piece + ": " + weights[piece]);
+            }
+            if (weights[piece] > 0) {
+                distinct++;
+            }
+            total += weights[piece];
+            cumulative[piece] = total;
+        }
+        if (distinct < MIN_DISTINCT_PIECES) {
+            throw new IllegalArgumentException("At least " + MIN_DISTINCT_PIECES + " pieces need a weight, got "
+                    + distinct);
+        }
+        return new PieceSequence(Kind.WEIGHTED, new SplittableRandom(seed), cumulative);
+    }
+
+    /**
+     * Create a sequence from a description: "uniform", "bag" or a comma separated list of weights
+     *
+     * @param description the description
+     * @param seed        the seed
+     * @return the sequence
+     * @throws IllegalArgumentException if the description is not understood
+     */
+    public static PieceSequence parse(String description, long seed) {
+        switch (description.toLowerCase(Locale.ROOT)) {
+            case "uniform":
+                return uniform(seed);
+            case "bag":
+                return bag(seed);
+            default:
+                try {
+                    return weighted(seed, Arrays.stream(description.split(","))
+                            .map(String::trim).mapToDouble(Double::parseDouble).toArray());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unknown piece distribution: " + description, e);
+                }
+        }
+    }
+
+    /**
+     * Deal the next piece
+     *
+     * @return the piece number
+     */
+    public int next() {
+        switch (kind) {
+            case BAG:
+                if (bagIndex == bag.length) {
+                    shuffleBag();
+                }
+                return bag[bagIndex++];
+            case WEIGHTED:
+                double pick = random.nextDouble() * cumulative[cumulative.length - 1];
+                for (int piece = 0; piece < cumulative.length; piece++) {
+                    if (pick < cumulative[piece]) {
+                        return piece;
+                    }
+                }
+                // only reached through rounding at the very top
+                return lastWeighted();
+            default:
+                return random.nextInt(GamePiece.PIECES);
+        }
+    }
+
+    /**
+     * Deal the next piece as a new GamePiece
+     *
+     * @return the piece
+     */
+    public GamePiece nextPiece() {
+        return GamePiece.createPiece(next());
+    }
+
+    /**
+     * Split off an independent sequence that deals pieces the same way. The new sequence does not share any random
+     * numbers with this one, and the same split of the same seed always gives the same sequence.
+     *
+     * @return the new sequence
+     */
+    public PieceSequence split() {
+        return new PieceSequence(kind, random.split(), cumulative);
+    }
+
+    /**
+     * Create a fresh sequence that deals pieces the same way from another seed
+     *
+     * @param seed the seed
+     * @return the new sequence
+     */
+    public PieceSequence withSeed(long seed) {
+        return new PieceSequence(kind, new SplittableRandom(seed), cumulative);
+    }
+
+    /**
+     * Get how pieces are dealt
+     *
+     * @return the kind of sequence
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Refill the bag with one of every piece in a new random order
+     */
+    private void shuffleBag() {
+        // Fisher-Yates, the bag always holds every piece once so only the order changes
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = bag[i];
+            bag[i] = bag[j];
+            bag[j] = swap;
+        }
+        bagIndex = 0;
+    }
+
+    /**
+     * Find the last piece with a weight above zero
+     *
+     * @return the piece number
+     */
+    private int lastWeighted() {
+        for (int piece = cumulative.length - 1; piece > 0; piece--) {
+            if (cumulative[piece] > cumulative[piece - 1]) {
+                return piece;
+            }
+        }
+        return 0;
+    }
+}
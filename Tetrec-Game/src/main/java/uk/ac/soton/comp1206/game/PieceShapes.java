@@ -0,0 +1,158 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The PieceShapes class is an immutable registry of the shapes of every game piece in every rotation.
+ * <p>
+ * All four rotations of the pieces are worked out once when the class is loaded, both as 3x3 block arrays and as
+ * bitmasks, so creating or rotating a GamePiece only has to change an index instead of building new arrays.
+ * <p>
+ * In a mask bit (y * 3 + x) is set when the piece has a block at column x and row y of its 3x3 grid. A row mask
+ * holds a single row of the piece, with bit x set when there is a block in column x.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class PieceShapes {
+
+    /**
+     * The number of distinct rotations of a piece
+     */
+    public static final int ROTATIONS = 4;
+
+    /**
+     * The width and height of the grid a piece is drawn in
+     */
+    public static final int SIZE = 3;
+
+    /**
+     * The names of the pieces, indexed by piece number
+     */
+    private static final String[] NAMES = {
+            "Line", "C", "Plus", "Dot", "Square", "L", "J", "S", "Z", "T", "X", "Corner", "Inverse Corner",
+            "Diagonal", "Double"
+    };
+
+    /**
+     * The shape of every piece before it is rotated, as blocks[x][y] with 1 where the piece has a block
+     */
+    private static final int[][][] SHAPES = {
+            {{0, 0, 0}, {1, 1, 1}, {0, 0, 0}}, //Line
+            {{0, 0, 0}, {1, 1, 1}, {1, 0, 1}}, //C
+            {{0, 1, 0}, {1, 1, 1}, {0, 1, 0}}, //Plus
+            {{0, 0, 0}, {0, 1, 0}, {0, 0, 0}}, //Dot
+            {{1, 1, 0}, {1, 1, 0}, {0, 0, 0}}, //Square
+            {{0, 0, 0}, {1, 1, 1}, {0, 0, 1}}, //L
+            {{0, 0, 1}, {1, 1, 1}, {0, 0, 0}}, //J
+            {{0, 0, 0}, {0, 1, 1}, {1, 1, 0}}, //S
+            {{1, 1, 0}, {0, 1, 1}, {0, 0, 0}}, //Z
+            {{1, 0, 0}, {1, 1, 0}, {1, 0, 0}}, //T
+            {{1, 0, 1}, {0, 1, 0}, {1, 0, 1}}, //X
+            {{0, 0, 0}, {1, 1, 0}, {1, 0, 0}}, //Corner
+            {{1, 0, 0}, {1, 1, 0}, {0, 0, 0}}, //Inverse Corner
+            {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}}, //Diagonal
+            {{0, 1, 0}, {0, 1, 0}, {0, 0, 0}}  //Double
+    };
+
+    /**
+     * The block arrays of every piece in every rotation, indexed [piece][rotation][x][y]
+     */
+    private static final int[][][][] BLOCKS = new int[GamePiece.PIECES][ROTATIONS][][];
+
+    /**
+     * The 9 bit masks of every piece in every rotation, indexed [piece][rotation]
+     */
+    private static final int[][] MASKS = new int[GamePiece.PIECES][ROTATIONS];
+
+    /**
+     * The row masks of every piece in every rotation, indexed [piece][rotation][row]
+     */
+    private static final int[][][] ROW_MASKS = new int[GamePiece.PIECES][ROTATIONS][SIZE];
+
+    static {
+        for (int piece = 0; piece < GamePiece.PIECES; piece++) {
+            int value = piece + 1;
+
+            // the first rotation is the shape itself, filled with the value of the piece
+            int[][] blocks = new int[SIZE][SIZE];
+            for (int x = 0; x < SIZE; x++) {
+                for (int y = 0; y < SIZE; y++) {
+                    blocks[x][y] = SHAPES[piece][x][y] == 0 ? 0 : value;
+                }
+            }
+
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                BLOCKS[piece][rotation] = blocks;
+
+                // pack the blocks into the masks
+                for (int x = 0; x < SIZE; x++) {
+                    for (int y = 0; y < SIZE; y++) {
+                        if (blocks[x][y] != 0) {
+                            MASKS[piece][rotation] |= 1 << (y * SIZE + x);
+                            ROW_MASKS[piece][rotation][y] |= 1 << x;
+                        }
+                    }
+                }
+
+                // rotate the 3x3 grid once to get the next rotation
+                int[][] rotated = new int[SIZE][SIZE];
+                for (int x = 0; x < SIZE; x++) {
+                    for (int y = 0; y < SIZE; y++) {
+                        rotated[SIZE - 1 - y][x] = blocks[x][y];
+                    }
+                }
+                blocks = rotated;
+            }
+        }
+    }
+
+    /**
+     * The registry only holds static tables
+     */
+    private PieceShapes() {
+    }
+
+    /**
+     * Get the name of a piece
+     *
+     * @param piece piece number
+     * @return the name of the piece
+     */
+    public static String name(int piece) {
+        return NAMES[piece];
+    }
+
+    /**
+     * Get the block array of a piece in a rotation. The array is shared and must not be modified.
+     *
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     * @return 2D grid of the blocks, indexed [x][y]
+     */
+    public static int[][] blocks(int piece, int rotation) {
+        return BLOCKS[piece][rotation];
+    }
+
+    /**
+     * Get the 9 bit mask of a piece in a rotation
+     *
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     * @return the mask, bit (y * 3 + x) set for every block
+     */
+    public static int mask(int piece, int rotation) {
+        return MASKS[piece][rotation];
+    }
+
+    /**
+     * Get a single row of a piece in a rotation
+     *
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     * @param row      the row of the 3x3 grid
+     * @return the row mask, bit x set for every block in the row
+     */
+    public static int rowMask(int piece, int rotation, int row) {
+        return ROW_MASKS[piece][rotation][row];
+    }
+
+}
@@ -0,0 +1,176 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+
+/**
+ * A PlacementMap holds every legal centre position of a piece on a grid, for each of the four rotations.
+ * <p>
+ * It is filled in one pass by {@link Grid#legalPlacements(GamePiece, PlacementMap)}. For every rotation the map is a
+ * bitboard laid out like the grid: bit (x % 64) of word (y * wordsPerRow + x / 64) is set when the piece can be
+ * placed with its centre at column x and row y. Rotations are absolute, so rotation r is the shape a piece has when
+ * {@link GamePiece#getRotation()} returns r.
+ * <p>
+ * A map can be filled again and again for the same grid size without allocating.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class PlacementMap {
+
+    /**
+     * The number of columns of the grid this map belongs to
+     */
+    private final int cols;
+
+    /**
+     * The number of rows of the grid this map belongs to
+     */
+    private final int rows;
+
+    /**
+     * The number of 64 bit words used for a single row
+     */
+    private final int wordsPerRow;
+
+    /**
+     * The legal centre positions, indexed [rotation][y * wordsPerRow + x / 64]
+     */
+    private final long[][] legal;
+
+    /**
+     * The number of legal centre positions in every rotation
+     */
+    private final int[] counts = new int[PieceShapes.ROTATIONS];
+
+    /**
+     * Create a new, empty PlacementMap for a grid of the given size
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public PlacementMap(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.legal = new long[PieceShapes.ROTATIONS][rows * wordsPerRow];
+    }
+
+    /**
+     * Get the words of a rotation so the grid can fill them in
+     *
+     * @param rotation rotation from 0 to 3
+     * @return the words of the rotation
+     */
+    long[] words(int rotation) {
+        return legal[rotation];
+    }
+
+    /**
+     * Recount the legal positions of a rotation after its words have been filled in
+     *
+     * @param rotation rotation from 0 to 3
+     */
+    void recount(int rotation) {
+        int count = 0;
+        for (long word : legal[rotation]) {
+            count += Long.bitCount(word);
+        }
+        counts[rotation] = count;
+    }
+
+    /**
+     * Empty the map
+     */
+    void clear() {
+        for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+            Arrays.fill(legal[rotation], 0L);
+            counts[rotation] = 0;
+        }
+    }
+
+    /**
+     * Check whether the piece can be placed with its centre at the given block
+     *
+     * @param rotation rotation from 0 to 3
+     * @param x        column
+     * @param y        row
+     * @return true if the placement is legal
+     */
+    public boolean isLegal(int rotation, int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        return (legal[rotation][y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Get the number of legal centre positions in a rotation
+     *
+     * @param rotation rotation from 0 to 3
+     * @return number of legal positions
+     */
+    public int count(int rotation) {
+        return counts[rotation];
+    }
+
+    /**
+     * Get the number of legal placements over all rotations
+     *
+     * @return number of legal placements
+     */
+    public int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Check whether there is no legal placement in any rotation
+     *
+     * @return true if the piece cannot be placed anywhere
+     */
+    public boolean isEmpty() {
+        return total() == 0;
+    }
+
+    /**
+     * Visit every legal centre position of a rotation, row by row
+     *
+     * @param rotation rotation from 0 to 3
+     * @param visitor  the visitor to call with every legal column and row
+     */
+    public void forEach(int rotation, BlockVisitor visitor) {
+        long[] words = legal[rotation];
+        for (int y = 0; y < rows; y++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = words[y * wordsPerRow + word];
+                while (bits != 0) {
+                    int x = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    visitor.visit(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of columns of the grid this map belongs to
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the grid this map belongs to
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+}
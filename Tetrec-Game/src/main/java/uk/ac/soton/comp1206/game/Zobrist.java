@@ -0,0 +1,111 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The Zobrist class provides the random 64 bit keys used to hash board and piece queue positions.
+ * <p>
+ * The hash of a position is the XOR of the keys of everything in it, so it can be updated in constant time when a
+ * single block changes. Instead of a table, which would be far too big for the largest boards, every key is worked
+ * out by mixing its index with the SplitMix64 finaliser. The keys are the same on every machine, so two clients can
+ * compare hashes to check that their boards agree.
+ * <p>
+ * The pieces dealt after the held pieces all move up a place whenever one is taken, so XOR-ing a key per position would
+ * mean hashing the whole queue again. Their hash is a polynomial instead: the key of the piece at position i times
+ * {@link #QUEUE_BASE} to the power i. Taking the front piece subtracts its key and divides by the base, which is odd
+ * and so has an inverse modulo 2^64, and dealing a piece onto the back adds its key times the highest power.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class Zobrist {
+
+    /**
+     * Separates block keys from piece queue keys
+     */
+    private static final long PIECE_SEED = 0x5DEECE66DL;
+
+    /**
+     * Separates the keys of pieces dealt after the held pieces from the other keys
+     */
+    private static final long QUEUE_SEED = 0x2545F4914F6CDD1DL;
+
+    /**
+     * The base of the polynomial hash of the pieces dealt after the held pieces. Odd, so it has an inverse.
+     */
+    public static final long QUEUE_BASE = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The inverse of {@link #QUEUE_BASE} modulo 2^64, so QUEUE_BASE * QUEUE_BASE_INVERSE == 1
+     */
+    public static final long QUEUE_BASE_INVERSE = inverse(QUEUE_BASE);
+
+    /**
+     * The class only holds static helpers
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Get the key of a block holding a value. An empty block has no key, so an empty grid hashes to 0.
+     *
+     * @param index the index of the block, y * cols + x
+     * @param value the value of the block
+     * @return the key
+     */
+    public static long blockKey(int index, int value) {
+        if (value == 0) {
+            return 0;
+        }
+        return mix(((long) index << 4) | value);
+    }
+
+    /**
+     * Get the key of a piece waiting at a position in the piece queue
+     *
+     * @param position the position in the queue, 0 for the piece to play next
+     * @param piece    piece number
+     * @param rotation rotation from 0 to 3
+     * @return the key
+     */
+    public static long pieceKey(int position, int piece, int rotation) {
+        return mix(PIECE_SEED ^ (((long) position << 8) | ((long) piece << 2) | rotation));
+    }
+
+    /**
+     * Get the key of a piece dealt after the held pieces, before it is weighted by its position in the queue
+     *
+     * @param piece piece number
+     * @return the key
+     */
+    public static long queueKey(int piece) {
+        return mix(QUEUE_SEED ^ piece);
+    }
+
+    /**
+     * Get the inverse of an odd number modulo 2^64
+     *
+     * @param value the odd number
+     * @return the number that multiplies with it to 1
+     */
+    private static long inverse(long value) {
+        // Newton's iteration doubles the correct low bits every step, and an odd number is its own inverse to 3 bits
+        long inverse = value;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - value * inverse;
+        }
+        return inverse;
+    }
+
+    /**
+     * Scramble a number into a well distributed 64 bit key
+     *
+     * @param value the number to scramble
+     * @return the key
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
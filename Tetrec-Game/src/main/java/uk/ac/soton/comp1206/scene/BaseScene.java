@@ -59,4 +59,21 @@ public abstract class BaseScene {
         return this.scene;
     }
 
+    /**
+     * Check whether the scene can be kept when it is taken off the window and shown again later instead of building a
+     * new one. Scenes that hold the state of a game are not reusable.
+     *
+     * @return true if the scene can be reused
+     */
+    public boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Get a reusable scene ready to be shown again. Called when it is taken off the window, so anything that should
+     * not run while it is hidden can be stopped here and started again in {@link #initialise()}.
+     */
+    public void reset() {
+    }
+
 }
@@ -3,7 +3,6 @@ package uk.ac.soton.comp1206.scene;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
@@ -19,15 +18,23 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.component.BoardBlock;
+import uk.ac.soton.comp1206.component.BoardView;
+import uk.ac.soton.comp1206.component.BoardViewport;
 import uk.ac.soton.comp1206.component.GameBoard;
 import uk.ac.soton.comp1206.component.PieceBoard;
 import uk.ac.soton.comp1206.event.GameLoopListener;
-import uk.ac.soton.comp1206.event.NextPieceListener;
+import uk.ac.soton.comp1206.event.GameEvent;
+import uk.ac.soton.comp1206.event.GameEventBus;
 import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GameEngine;
 import uk.ac.soton.comp1206.game.Grid;
 import uk.ac.soton.comp1206.game.Multimedia;
+import uk.ac.soton.comp1206.game.PieceSequence;
+import uk.ac.soton.comp1206.ui.DisplayScale;
 import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.Assets;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.io.*;
@@ -36,6 +43,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Vector;
 
@@ -50,8 +58,8 @@ import static javafx.scene.control.skin.TextInputControlSkin.Direction.*;
  */
 public class ChallengeScene extends BaseScene implements GameLoopListener {
 
-    // Listener to handle the event when the next game piece is ready
-    protected NextPieceListener nextPieceListener;
+    // Subscription updating the piece boards when the held pieces change
+    protected GameEventBus.Subscription nextPieceSubscription;
 
     // Board to display the next piece in the game
     protected PieceBoard nextPieceBoard;
@@ -66,7 +74,7 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
     private static Multimedia multimedia = new Multimedia();
 
 
-    public GameBlock gameBlock;
+    public BoardBlock gameBlock;
 
 
     // Visual element to represent a timer or progress
@@ -79,9 +87,56 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
     private final IntegerProperty highScores = new SimpleIntegerProperty();
 
 
+    /**
+     * The number of columns of the board, set with -Dtetrecs.cols
+     */
+    private static final int BOARD_COLS = Math.max(1, Math.min(1000, Integer.getInteger("tetrecs.cols", 5)));
+
+    /**
+     * The number of rows of the board, set with -Dtetrecs.rows
+     */
+    private static final int BOARD_ROWS = Math.max(1, Math.min(1000, Integer.getInteger("tetrecs.rows", 5)));
+
+    /**
+     * What happens when no held piece fits anywhere, set with -Dtetrecs.noMove=END_GAME or LOSE_LIFE in any case
+     */
+    private static final String NO_MOVE = System.getProperty("tetrecs.noMove", "LOSE_LIFE");
+
+    /**
+     * How the pieces are dealt, set with -Dtetrecs.pieces=uniform, bag or a comma separated weight for every piece
+     */
+    private static final String PIECES = System.getProperty("tetrecs.pieces", "uniform");
+
+    /**
+     * The seed the pieces are dealt from, set with -Dtetrecs.seed to replay the same pieces. Random when not set.
+     */
+    private static final Long SEED = Long.getLong("tetrecs.seed");
+
+    /**
+     * The number of pieces dealt in advance after the held pieces, set with -Dtetrecs.lookahead
+     */
+    private static final int LOOKAHEAD = Math.max(1, Integer.getInteger("tetrecs.lookahead", GameEngine.DEFAULT_LOOKAHEAD));
+
+    /**
+     * How fast the game runs compared to real time, set with -Dtetrecs.speed, for example 2 for twice as fast
+     */
+    private static final String GAME_SPEED = System.getProperty("tetrecs.speed", "1");
+
+    /**
+     * Boards with more blocks than this are shown through a BoardViewport instead of a GameBoard
+     */
+    private static final int LARGE_BOARD_BLOCKS = 400;
+
+    /**
+     * Whether the board is drawn on a single canvas instead of a GameBlock for every block, set with
+     * -Dtetrecs.renderer=canvas
+     */
+    private static final boolean CANVAS_BOARD = "canvas".equalsIgnoreCase(System.getProperty("tetrecs.renderer", "blocks"));
+
     private IntegerProperty aimX = new SimpleIntegerProperty(0);
     private IntegerProperty aimY = new SimpleIntegerProperty(0);
-    private GameBoard board;
+    // the GameBoard, or the single canvas BoardViewport in large board mode
+    private BoardView board;
 
 
     /**
@@ -108,33 +163,30 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
      * sets up a listener so when changes occur to the current and next game piece, it updates the PieceBoard accordingly
      */
     private void setUpNextPieceListener() {
-        // this will handle notifications about the new current and next game pieces
-        nextPieceListener = (nextPiece, followingPieces) -> {
-            logger.info("new current and new next received successfully ");
-
-            // this schedule the update to the UI components
-            Platform.runLater(() -> {
-                logger.debug("Updating PieceBoards");
-
-                // Update the PieceBoard with the new next piece
-                if (nextPieceBoard != null) {
-                    nextPieceBoard.settingPieceToDisplay(nextPiece);
-                    logger.info("Next PieceBoard updated.");
-                }
-                // Update the PieceBoard with the new following piece
-                if (followingPieceBoard != null) {
-                    followingPieceBoard.settingPieceToDisplay(followingPieces);
-                    logger.info("Next PieceBoard Debug");
-                }
-
+        // the game may have been replaced, so drop the subscription to the old one
+        if (nextPieceSubscription != null) {
+            nextPieceSubscription.cancel();
+        }
+        // the bus delivers on the FX thread, at most once per pulse with the latest pieces
+        nextPieceSubscription = game.getEvents().subscribe(GameEvent.PiecesChanged.class, event -> {
+            logger.debug("Updating PieceBoards");
 
-            });
-        };
-        // Register the listener with the game instance to ensure it receives updates about game pieces.
-        this.game.setNextPieceListener(nextPieceListener);
+            // Update the PieceBoard with the new next piece
+            if (nextPieceBoard != null) {
+                nextPieceBoard.settingPieceToDisplay(event.nextPiece());
+            }
+            // Update the PieceBoard with the new following piece
+            if (followingPieceBoard != null) {
+                followingPieceBoard.settingPieceToDisplay(event.followingPieces());
+            }
+            // show where the new next piece would land at the current aim
+            if (board != null) {
+                board.setPreviewPiece(event.nextPiece());
+            }
+        });
 
         // Log the successful registration of the listener with the game.
-        logger.info("NextPieceListener successfully registered with game.");
+        logger.info("PiecesChanged subscription registered with game.");
     }
 
 
@@ -205,18 +257,27 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
         challengePane.setMaxWidth(gameWindow.getWidth());
         challengePane.setMaxHeight(gameWindow.getHeight());
         challengePane.getStyleClass().add("menu-background");
+        challengePane.setBackground(Assets.getBackground(Assets.MENU_BACKGROUND, gameWindow.getWidth(),
+                gameWindow.getHeight()));
         root.getChildren().add(challengePane);
 
         var mainPane = new BorderPane();
         challengePane.getChildren().add(mainPane);
-        board = new GameBoard(game.getGrid(), gameWindow.getWidth() / 2, gameWindow.getWidth() / 2);
-        // Inside the initialise method of ChallengeScene
-        // Ensure gameBoard is properly initialized before this point
-        // assinging the fadeout method within the gameBoard instance
-        game.addLinesCleared(board::fadeOut);
+        if (isCanvasBoard()) {
+            // a single canvas only repaints the blocks in view that changed since the last pulse
+            var viewport = new BoardViewport(game.getGrid(), gameWindow.getWidth() / 2, gameWindow.getWidth() / 2);
+            mainPane.setCenter(viewport);
+            board = viewport;
+        } else {
+            var gameBoard = new GameBoard(game.getGrid(), gameWindow.getWidth() / 2, gameWindow.getWidth() / 2);
+            mainPane.setCenter(gameBoard);
+            board = gameBoard;
+        }
+        // the fades run on the game clock so they keep pace with the timer
+        board.setClock(game.getClock());
+        // fade the cleared lines out once the batch of the move reaches the FX thread
+        game.getEvents().subscribe(GameEvent.LinesCleared.class, event -> board.fadeOut(event.clearMask()));
         board.setRightClickedListener(game);
-        mainPane.setCenter(board);
-
 
         //Handle block on gameboard grid being clicked
         board.setOnBlockClick(this::blockClicked);
@@ -322,10 +383,65 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
         logger.info("Starting a new challenge");
 
         //Start new game
-        game = new Game(5, 5, this, gameWindow);
+        game = new Game(BOARD_COLS, BOARD_ROWS, this, gameWindow, GameClock.realTime(gameSpeed()));
+        game.setNoMoveAction(noMoveAction());
+        long seed = SEED != null ? SEED : System.nanoTime();
+        try {
+            game.getEngine().setPieceSequence(PieceSequence.parse(PIECES, seed));
+        } catch (IllegalArgumentException e) {
+            // a bad -Dtetrecs.pieces should not stop the game from starting
+            logger.error("Ignoring tetrecs.pieces: {}", e.getMessage());
+            game.getEngine().setPieceSequence(PieceSequence.uniform(seed));
+        }
+        game.getEngine().setLookahead(LOOKAHEAD);
         setUpNextPieceListener();
     }
 
+    /**
+     * Get how fast the game runs compared to real time, as set with -Dtetrecs.speed
+     *
+     * @return the speed, real time unless a speed above 0 was asked for
+     */
+    private static double gameSpeed() {
+        try {
+            double speed = Double.parseDouble(GAME_SPEED.trim());
+            // NaN fails the comparison too
+            if (speed > 0 && !Double.isInfinite(speed)) {
+                return speed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below along with the other bad values
+        }
+        // a bad -Dtetrecs.speed should not stop the game from starting
+        logger.error("Ignoring tetrecs.speed: {} is not a number above 0", GAME_SPEED);
+        return 1;
+    }
+
+    /**
+     * Get what happens when no held piece fits anywhere, as set with -Dtetrecs.noMove
+     *
+     * @return the action, losing a life unless another one was asked for
+     */
+    private static GameEngine.NoMoveAction noMoveAction() {
+        try {
+            return GameEngine.NoMoveAction.valueOf(NO_MOVE.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // a bad -Dtetrecs.noMove should not stop the game from starting
+            logger.error("Ignoring tetrecs.noMove: {} is not END_GAME or LOSE_LIFE", NO_MOVE);
+            return GameEngine.NoMoveAction.LOSE_LIFE;
+        }
+    }
+
+    /**
+     * Check whether the board is drawn on a single canvas, either because it was asked for, because only the single
+     * canvas can be drawn crisp, or because the board is too large to give every block its own GameBlock
+     *
+     * @return true if the board is shown through a viewport
+     */
+    private boolean isCanvasBoard() {
+        return CANVAS_BOARD || DisplayScale.isCrisp() || BOARD_COLS * BOARD_ROWS > LARGE_BOARD_BLOCKS;
+    }
+
 
     /**
      * {@inheritDoc}
@@ -403,6 +519,10 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
             case R:
                 game.swapCurrentPiece();
                 break;
+            case U:
+            case BACK_SPACE:
+                game.undo();
+                break;
             case ESCAPE:
                 game.goBackToMenu();
                 break;
@@ -414,9 +534,9 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
     /**
      * Handle when a block is clicked
      *
-     * @param gameBlock the Game Block that was clocked
+     * @param gameBlock the block that was clocked
      */
-    public void blockClicked(GameBlock gameBlock) {
+    public void blockClicked(BoardBlock gameBlock) {
         this.gameBlock = gameBlock;
         game.blockClicked(gameBlock);
     }
@@ -561,6 +681,8 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
                 new KeyValue(timeBar.fillProperty(), Color.RED) // Change color to red
         );
         timeline.getKeyFrames().add(endFrame);
+        // the bar drains at the speed of the game clock so it empties when the timer runs out
+        timeline.setRate(game.getClock().getRate());
         timeline.playFromStart();
     }
 
@@ -580,6 +702,7 @@ public class ChallengeScene extends BaseScene implements GameLoopListener {
      * Updates the hover state of the game block located at the current aim coordinates (aimX, aimY).
      */
     public void hoverUpdating() {
-        board.myHover(board.getBlock(aimX.get(), aimY.get()));
+        // a viewport also moves to keep the aimed block in view on a large board
+        board.setHover(aimX.get(), aimY.get());
     }
 }
@@ -19,6 +19,7 @@ import uk.ac.soton.comp1206.component.PieceBoard;
 import uk.ac.soton.comp1206.game.GamePiece;
 import uk.ac.soton.comp1206.game.Grid;
 import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.Assets;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 /**
@@ -67,6 +68,16 @@ public class InstructionsScene extends BaseScene {
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The instructions do not change, so the same scene is shown every time
+     */
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -84,6 +95,8 @@ public class InstructionsScene extends BaseScene {
         var mainPain = new StackPane();
         // style the mainPain
         mainPain.getStyleClass().add("menu-background");
+        mainPain.setBackground(Assets.getBackground(Assets.MENU_BACKGROUND, gameWindow.getWidth(),
+                gameWindow.getHeight()));
         // adding it to the root
         root.getChildren().add(mainPain);
 
@@ -91,10 +104,10 @@ public class InstructionsScene extends BaseScene {
         var instructionPane = new BorderPane();
 
         /*
-        Loading the instructions image and setting the width and height as the same as the gameWindow so it fits
-         the scene and assign it to true, so it be more clear
+        Getting the instructions image decoded at the width it is shown at below, so it is not decoded at the
+         size of the window and then scaled down
          */
-        Image image = new Image(InstructionsScene.class.getResource("/images/Instructions.png").toExternalForm(), gameWindow.getWidth(), gameWindow.getHeight(), true, true);
+        Image image = Assets.getImage("/images/Instructions.png", gameWindow.getWidth() / 1.5, gameWindow.getHeight(), true);
         ImageView imageView = new ImageView(image);
         // set the preserve ratio to true to maintain its width and height
         imageView.setPreserveRatio(true);
@@ -114,7 +127,7 @@ public class InstructionsScene extends BaseScene {
         for (int i = 0; i < GamePiece.PIECES; i++) {
             // creating a new piece for the whole 15 pieces
             GamePiece piece = GamePiece.createPiece(i);
-            // Create a board for each piece
+            // Create a board for each piece, all of them showing parts of the same piece atlas
             PieceBoard board = new PieceBoard(widthAndHeightOfTheBoard, widthAndHeightOfTheBoard, false);
             // Associate the PieceBoard with the GamePiece
             board.settingPieceToDisplay(piece);
@@ -1,6 +1,5 @@
 package uk.ac.soton.comp1206.scene;
 
-import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,7 +10,9 @@ import javafx.scene.layout.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.network.Communicator;
+import uk.ac.soton.comp1206.ui.Diagnostics;
 import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.Assets;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.util.Arrays;
@@ -121,7 +122,7 @@ public class LobbyScene extends BaseScene {
      */
     public void listenToServerMessages() {
         this.communicator.addListener(serverMessage -> {
-            Platform.runLater(() -> handleServerMessage(serverMessage.trim()));
+            Diagnostics.runLater(() -> handleServerMessage(serverMessage.trim()));
         });
     }
 
@@ -155,7 +156,7 @@ public class LobbyScene extends BaseScene {
                 clearCurrentChannel();
                 break;
             case "HOST": // Example command indicating the user is now the host
-                Platform.runLater(() -> startGameButton.setVisible(true));
+                Diagnostics.runLater(() -> startGameButton.setVisible(true));
                 break;
             case "ERROR":
                 showError(data);
@@ -172,7 +173,7 @@ public class LobbyScene extends BaseScene {
      * @param channelData String containing channel names separated by newlines.
      */
     public void updateChannelList(String channelData) {
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             List<String> channels = Arrays.asList(channelData.split("\n"));
             this.channelContainer.getChildren().clear(); // Clear existing buttons
             for (String channelName : channels) {
@@ -245,7 +246,7 @@ public class LobbyScene extends BaseScene {
      * @param userData String of user names separated by newlines.
      */
     public void updateUsersList(String userData) {
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             List<String> users = Arrays.asList(userData.split("\n"));
             this.userData.setAll(users);
 
@@ -289,7 +290,7 @@ public class LobbyScene extends BaseScene {
      * Resets the current channel to null on the JavaFX Application Thread.
      */
     private void clearCurrentChannel() {
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             currentChannel.set(null);
         });
     }
@@ -324,7 +325,7 @@ public class LobbyScene extends BaseScene {
      * @param errorMessage The message to be displayed in the alert.
      */
     public void showError(String errorMessage) {
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR, errorMessage, ButtonType.OK);
             alert.showAndWait();
         });
@@ -354,6 +355,8 @@ public class LobbyScene extends BaseScene {
         var mainPane = new StackPane();
         // style the mainPain
         mainPane.getStyleClass().add("menu-background");
+        mainPane.setBackground(Assets.getBackground(Assets.MENU_BACKGROUND, gameWindow.getWidth(),
+                gameWindow.getHeight()));
         // adding it to the root
         root.getChildren().add(mainPane);
 
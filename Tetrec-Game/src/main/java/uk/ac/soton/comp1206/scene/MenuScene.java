@@ -22,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.game.GamePiece;
 import uk.ac.soton.comp1206.game.Multimedia;
 import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.Assets;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.io.FileInputStream;
@@ -39,6 +40,11 @@ public class MenuScene extends BaseScene {
     private static final Logger logger = LogManager.getLogger(MenuScene.class);
     private static Multimedia multimediaSounds = new Multimedia();
 
+    /**
+     * Rocks the title back and forth while the menu is shown
+     */
+    private RotateTransition rotateTransition;
+
 
     /**
      * Create a new menu scene
@@ -66,6 +72,8 @@ public class MenuScene extends BaseScene {
         menuPane.setMaxWidth(gameWindow.getWidth());
         menuPane.setMaxHeight(gameWindow.getHeight());
         menuPane.getStyleClass().add("menu-background");
+        menuPane.setBackground(Assets.getBackground(Assets.MENU_BACKGROUND, gameWindow.getWidth(),
+                gameWindow.getHeight()));
         root.getChildren().add(menuPane);
 
         var mainPane = new BorderPane();
@@ -98,11 +106,11 @@ public class MenuScene extends BaseScene {
 
 
         // load an image from a url folder by using getResource and the path name to a string representation by using toExternalForm
-        Image image = new Image(MenuScene.class.getResource("/images/TetrECS.png").toExternalForm());
+        Image image = Assets.getImage("/images/TetrECS.png", 600, 100, false);
         //This creates an Image view
         ImageView imageView = new ImageView(image);
         // Rotate the image and choosing the seconds the rotation lasts
-        RotateTransition rotateTransition = new RotateTransition(Duration.seconds(3), imageView);
+        rotateTransition = new RotateTransition(Duration.seconds(3), imageView);
         // The angle to rotate by 15 degree
         rotateTransition.setByAngle(15);
         // setting the CycleCount to infinity
@@ -149,6 +157,8 @@ public class MenuScene extends BaseScene {
     @Override
     public void initialise() {
         multimediaSounds.playAnBackgroundMusic("menu.mp3");
+        // carry on rocking the title if the menu is shown again
+        rotateTransition.play();
 
         this.scene.setOnKeyPressed(e -> {
             if (e.getCode() == KeyCode.ESCAPE) {
@@ -158,6 +168,26 @@ public class MenuScene extends BaseScene {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The menu does not change, so the same scene is shown every time
+     */
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stop rocking the title while the menu is hidden
+     */
+    @Override
+    public void reset() {
+        rotateTransition.pause();
+    }
+
     /**
      * Handle when the Start Game button is pressed
      *
@@ -2,7 +2,6 @@ package uk.ac.soton.comp1206.scene;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
@@ -24,7 +23,9 @@ import uk.ac.soton.comp1206.component.ScoresList;
 import uk.ac.soton.comp1206.event.CommunicationsListener;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.network.Communicator;
+import uk.ac.soton.comp1206.ui.Diagnostics;
 import uk.ac.soton.comp1206.ui.GamePane;
+import uk.ac.soton.comp1206.ui.Assets;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.io.*;
@@ -88,7 +89,7 @@ public class ScoresScene extends BaseScene implements CommunicationsListener {
     public void initialise() {
 
         if (communicator != null) {
-            communicator.addListener(message -> Platform.runLater(() -> receiveCommunication(message)));
+            communicator.addListener(message -> Diagnostics.runLater(() -> receiveCommunication(message)));
             logger.info("Communicator listener added.");
         } else {
             logger.error("Communicator has not been initialized.");
@@ -117,10 +118,12 @@ public class ScoresScene extends BaseScene implements CommunicationsListener {
         mainPane.setMaxWidth(gameWindow.getWidth());
         root.getChildren().add(mainPane);
         mainPane.getStyleClass().add("menu-background");
+        mainPane.setBackground(Assets.getBackground(Assets.MENU_BACKGROUND, gameWindow.getWidth(),
+                gameWindow.getHeight()));
 
         HBox hBox = new HBox();
         // load an image from a url folder by using getResource and the path name to a string representation by using toExternalForm
-        Image image = new Image(MenuScene.class.getResource("/images/TetrECS.png").toExternalForm());
+        Image image = Assets.getImage("/images/TetrECS.png", 600, 100, false);
         //This creates an Image view
         ImageView imageView = new ImageView(image);
         hBox.getChildren().add(imageView);
@@ -179,7 +182,7 @@ public class ScoresScene extends BaseScene implements CommunicationsListener {
 
         logger.info("local scores " + localScores);
 
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             localScoresList.reveal();
             onlineScore.reveal();
         });
@@ -347,7 +350,7 @@ public class ScoresScene extends BaseScene implements CommunicationsListener {
 
                 }
                 // Animate the scores
-                Platform.runLater(() -> {
+                Diagnostics.runLater(() -> {
                     localScoresList.update(scores);
                     localScoresList.reveal();
                 });
@@ -419,7 +422,7 @@ public class ScoresScene extends BaseScene implements CommunicationsListener {
      * @param message the message containing the HISCORES
      */
     public void setHighScores(String message) {
-        Platform.runLater(() -> {
+        Diagnostics.runLater(() -> {
             remoteScores.clear();  // Clear existing scores to avoid duplications
             String[] entries = message.trim().substring("HISCORES ".length()).split("\n");
             for (String entry : entries) {
@@ -0,0 +1,233 @@
+package uk.ac.soton.comp1206.simulation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.GameClock;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.PieceSequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The BatchSimulator plays many games headlessly with a policy, spread over a number of threads, and collects the
+ * score, level and length of every game.
+ * <p>
+ * Every game gets its own seed, drawn up front from the batch seed, which deals its pieces and drives its policy. A
+ * game therefore plays out the same whichever thread runs it, and a batch gives the same results on any number of
+ * threads. Threads share nothing but a counter of the next games to play and write their results into their own slots,
+ * so the batch scales with the number of cores.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class BatchSimulator {
+
+    private static final Logger logger = LogManager.getLogger(BatchSimulator.class);
+
+    /**
+     * The number of games a thread takes from the counter at once
+     */
+    private static final int CHUNK = 16;
+
+    /**
+     * The number of columns of the board
+     */
+    private final int cols;
+
+    /**
+     * The number of rows of the board
+     */
+    private final int rows;
+
+    /**
+     * The policy every game is played with
+     */
+    private final Policy policy;
+
+    /**
+     * What happens when no held piece fits
+     */
+    private GameEngine.NoMoveAction noMoveAction = GameEngine.NoMoveAction.LOSE_LIFE;
+
+    /**
+     * The number of placements after which a game is stopped
+     */
+    private int maxMoves = 10_000;
+
+    /**
+     * The way pieces are dealt, copied with a new seed for every game
+     */
+    private PieceSequence pieces = PieceSequence.uniform(0);
+
+    /**
+     * The number of pieces dealt in advance in every game
+     */
+    private int lookahead = GameEngine.DEFAULT_LOOKAHEAD;
+
+    /**
+     * The game time a player spends before every move, in milliseconds
+     */
+    private long thinkMillis = 1000;
+
+    /**
+     * Create a new simulator for a board of the given size
+     *
+     * @param cols   number of columns
+     * @param rows   number of rows
+     * @param policy the policy every game is played with
+     */
+    public BatchSimulator(int cols, int rows, Policy policy) {
+        this.cols = cols;
+        this.rows = rows;
+        this.policy = policy;
+    }
+
+    /**
+     * Set what happens when no held piece fits anywhere
+     *
+     * @param noMoveAction the action
+     */
+    public void setNoMoveAction(GameEngine.NoMoveAction noMoveAction) {
+        this.noMoveAction = noMoveAction;
+    }
+
+    /**
+     * Set the number of placements after which a game is stopped, so a policy that never loses still finishes
+     *
+     * @param maxMoves the maximum number of placements in a game
+     */
+    public void setMaxMoves(int maxMoves) {
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Set the way pieces are dealt. Only the distribution is used, every game gets its own seed.
+     *
+     * @param pieces a sequence dealing pieces the right way
+     */
+    public void setPieces(PieceSequence pieces) {
+        this.pieces = pieces;
+    }
+
+    /**
+     * Set the number of pieces dealt in advance in every game
+     *
+     * @param lookahead the number of pieces, at least one
+     */
+    public void setLookahead(int lookahead) {
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Set the game time a player spends before every move. The simulated clock only moves when a move takes time, so
+     * this is what makes game time pass, and a think time longer than the timer makes the player lose turns.
+     *
+     * @param thinkMillis the time in milliseconds, 0 or more
+     */
+    public void setThinkMillis(long thinkMillis) {
+        this.thinkMillis = thinkMillis;
+    }
+
+    /**
+     * Play a batch of games
+     *
+     * @param games   the number of games
+     * @param threads the number of threads to play them on
+     * @param seed    the seed of the batch
+     * @return the results of every game
+     * @throws InterruptedException if the batch was interrupted
+     */
+    public SimulationResults run(int games, int threads, long seed) throws InterruptedException {
+        // draw every seed up front so a game does not depend on the thread that plays it
+        SplittableRandom batchRandom = new SplittableRandom(seed);
+        SimulationResults results = new SimulationResults(games);
+        for (int game = 0; game < games; game++) {
+            results.seeds[game] = batchRandom.nextLong();
+        }
+
+        logger.info("Playing {} games of {} x {} on {} threads", games, cols, rows, threads);
+        long start = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                workers.add(() -> {
+                    int first;
+                    while ((first = next.getAndAdd(CHUNK)) < games) {
+                        for (int game = first; game < Math.min(games, first + CHUNK); game++) {
+                            play(game, results);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> worker : pool.invokeAll(workers)) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        results.elapsedNanos = System.nanoTime() - start;
+        logger.info("Played {} games in {} ms", games, results.elapsedNanos / 1_000_000);
+        return results;
+    }
+
+    /**
+     * Play a single game and record its result
+     *
+     * @param game    the number of the game
+     * @param results where the result is recorded
+     */
+    private void play(int game, SimulationResults results) {
+        SplittableRandom random = new SplittableRandom(results.seeds[game]);
+        GameEngine engine = new GameEngine(cols, rows, GameClock.asFastAsPossible());
+        engine.setPieceSequence(pieces.withSeed(random.nextLong()));
+        engine.setLookahead(lookahead);
+        engine.setNoMoveAction(noMoveAction);
+        engine.start();
+
+        int moves = 0;
+        while (!engine.isGameOver() && moves < maxMoves) {
+            // the player thinks first, and loses the turn if the timer runs out meanwhile
+            if (thinkMillis > 0 && engine.advanceClockBy(thinkMillis)) {
+                continue;
+            }
+            Move move = policy.choose(engine, random);
+            if (move == null) {
+                // nothing to play, so let the timer run out
+                engine.advanceClock();
+                continue;
+            }
+            if (move.isSwap()) {
+                engine.swapCurrentPiece();
+            }
+            int turns = move.getRotation() - engine.getNextPiece().getRotation();
+            if (turns != 0) {
+                engine.rotateNextPiece(turns);
+            }
+            if (engine.place(move.getX(), move.getY())) {
+                moves++;
+            } else {
+                // an illegal move wastes the turn
+                engine.advanceClock();
+            }
+        }
+
+        results.scores[game] = engine.getScore();
+        results.levels[game] = engine.getLevel();
+        results.moves[game] = moves;
+        results.times[game] = engine.getClock().millis();
+        results.truncated[game] = !engine.isGameOver();
+    }
+}
@@ -0,0 +1,129 @@
+package uk.ac.soton.comp1206.simulation;
+
+import java.util.Arrays;
+
+/**
+ * A Distribution summarises one measurement over every game of a batch: its mean, spread and percentiles.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class Distribution {
+
+    /**
+     * The percentiles every distribution reports
+     */
+    public static final int[] PERCENTILES = {1, 5, 10, 25, 50, 75, 90, 95, 99};
+
+    /**
+     * The name of the measurement
+     */
+    private final String name;
+
+    /**
+     * The values, sorted
+     */
+    private final long[] sorted;
+
+    /**
+     * The mean of the values
+     */
+    private final double mean;
+
+    /**
+     * The standard deviation of the values
+     */
+    private final double standardDeviation;
+
+    /**
+     * Summarise the given values
+     *
+     * @param name   the name of the measurement
+     * @param values the value of every game, which is not changed
+     */
+    public Distribution(String name, long[] values) {
+        this.name = name;
+        this.sorted = values.clone();
+        Arrays.sort(sorted);
+
+        double sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        this.mean = sorted.length == 0 ? 0 : sum / sorted.length;
+
+        double squares = 0;
+        for (long value : sorted) {
+            squares += (value - mean) * (value - mean);
+        }
+        this.standardDeviation = sorted.length == 0 ? 0 : Math.sqrt(squares / sorted.length);
+    }
+
+    /**
+     * Get the value below which the given percentage of games fall, using the nearest rank
+     *
+     * @param percent the percentile, from 0 to 100
+     * @return the value, or 0 if there are no values
+     */
+    public long percentile(int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Get the name of the measurement
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of values
+     *
+     * @return the count
+     */
+    public int getCount() {
+        return sorted.length;
+    }
+
+    /**
+     * Get the mean of the values
+     *
+     * @return the mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Get the standard deviation of the values
+     *
+     * @return the standard deviation
+     */
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * Get the smallest value
+     *
+     * @return the minimum, or 0 if there are no values
+     */
+    public long getMin() {
+        return sorted.length == 0 ? 0 : sorted[0];
+    }
+
+    /**
+     * Get the largest value
+     *
+     * @return the maximum, or 0 if there are no values
+     */
+    public long getMax() {
+        return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+}
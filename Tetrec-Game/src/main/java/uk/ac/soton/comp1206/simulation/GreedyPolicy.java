@@ -0,0 +1,164 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.BlockVisitor;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.PieceShapes;
+import uk.ac.soton.comp1206.game.PlacementMap;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The GreedyPolicy picks the legal move of either held piece that scores the most points straight away. Moves that
+ * clear nothing are ranked by how close they bring their rows and columns to being full, and ties are broken at
+ * random.
+ * <p>
+ * Moves are judged with the fill counters of the grid, so the grid is never changed while looking.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class GreedyPolicy implements Policy {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Move choose(GameEngine engine, SplittableRandom random) {
+        Grid grid = engine.getGrid();
+        Search search = new Search(grid, random);
+        search.consider(engine.getNextPiece(), false);
+        search.consider(engine.getFollowingPieces(), true);
+        return search.best;
+    }
+
+    /**
+     * Walks every legal placement and keeps the best one
+     */
+    private static final class Search implements BlockVisitor {
+
+        /**
+         * The grid being searched
+         */
+        private final Grid grid;
+
+        /**
+         * Breaks ties
+         */
+        private final SplittableRandom random;
+
+        /**
+         * Reused for the placements of each piece
+         */
+        private final PlacementMap placements;
+
+        /**
+         * The number of blocks of the piece in each of its columns, reused for every placement
+         */
+        private final int[] columnBlocks = new int[PieceShapes.SIZE];
+
+        /**
+         * The piece, rotation and swap of the placements being walked
+         */
+        private int piece, rotation;
+        private boolean swap;
+
+        /**
+         * The best move so far, its value and how many moves share that value
+         */
+        private Move best;
+        private long bestValue = Long.MIN_VALUE;
+        private int ties;
+
+        /**
+         * Create a search of the given grid
+         *
+         * @param grid   the grid
+         * @param random breaks ties
+         */
+        Search(Grid grid, SplittableRandom random) {
+            this.grid = grid;
+            this.random = random;
+            this.placements = new PlacementMap(grid.getCols(), grid.getRows());
+        }
+
+        /**
+         * Walk every legal placement of a held piece
+         *
+         * @param gamePiece the piece
+         * @param swap      whether the pieces are swapped to place it
+         */
+        void consider(GamePiece gamePiece, boolean swap) {
+            grid.legalPlacements(gamePiece, placements);
+            this.piece = gamePiece.getPieceNumber();
+            this.swap = swap;
+            for (rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+                placements.forEach(rotation, this);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visit(int x, int y) {
+            long value = value(x, y);
+            if (value > bestValue) {
+                bestValue = value;
+                ties = 1;
+                best = new Move(swap, rotation, x, y);
+            } else if (value == bestValue && random.nextInt(++ties) == 0) {
+                // every tied move is kept with equal chance
+                best = new Move(swap, rotation, x, y);
+            }
+        }
+
+        /**
+         * Work out how good a placement is: the points it scores first, then how full it leaves its lines
+         *
+         * @param x column of the centre
+         * @param y row of the centre
+         * @return the value, higher is better
+         */
+        private long value(int x, int y) {
+            int fullRows = 0;
+            int fullColumns = 0;
+            int filling = 0;
+            Arrays.fill(columnBlocks, 0);
+            for (int row = 0; row < PieceShapes.SIZE; row++) {
+                int rowMask = PieceShapes.rowMask(piece, rotation, row);
+                if (rowMask == 0) {
+                    continue;
+                }
+                int blocks = Integer.bitCount(rowMask);
+                int fill = grid.getRowFill(y - 1 + row) + blocks;
+                filling += fill;
+                if (fill == grid.getCols()) {
+                    fullRows++;
+                }
+                for (int col = 0; col < PieceShapes.SIZE; col++) {
+                    if ((rowMask & (1 << col)) != 0) {
+                        columnBlocks[col]++;
+                    }
+                }
+            }
+            for (int col = 0; col < PieceShapes.SIZE; col++) {
+                if (columnBlocks[col] == 0) {
+                    continue;
+                }
+                int fill = grid.getColumnFill(x - 1 + col) + columnBlocks[col];
+                filling += fill;
+                if (fill == grid.getRows()) {
+                    fullColumns++;
+                }
+            }
+            // the same formula as the game: lines times distinct blocks cleared
+            int lines = fullRows + fullColumns;
+            long blocks = (long) fullRows * grid.getCols() + (long) fullColumns * grid.getRows()
+                    - (long) fullRows * fullColumns;
+            return (lines * blocks << 20) + filling;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package uk.ac.soton.comp1206.simulation;
+
+/**
+ * A Move is what a policy decides to do on its turn: optionally swap the held pieces, turn the next piece to a
+ * rotation and place it with its centre at a block.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class Move {
+
+    /**
+     * Whether to swap the held pieces before placing
+     */
+    private final boolean swap;
+
+    /**
+     * The rotation to turn the placed piece to, from 0 to 3
+     */
+    private final int rotation;
+
+    /**
+     * The column of the centre of the piece
+     */
+    private final int x;
+
+    /**
+     * The row of the centre of the piece
+     */
+    private final int y;
+
+    /**
+     * Create a new move
+     *
+     * @param swap     whether to swap the held pieces before placing
+     * @param rotation the rotation to turn the placed piece to
+     * @param x        the column of the centre of the piece
+     * @param y        the row of the centre of the piece
+     */
+    public Move(boolean swap, int rotation, int x, int y) {
+        this.swap = swap;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Check whether the held pieces are swapped before placing
+     *
+     * @return true to swap
+     */
+    public boolean isSwap() {
+        return swap;
+    }
+
+    /**
+     * Get the rotation the placed piece is turned to
+     *
+     * @return rotation from 0 to 3
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Get the column of the centre of the piece
+     *
+     * @return column
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Get the row of the centre of the piece
+     *
+     * @return row
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return (swap ? "swap, " : "") + "rotation " + rotation + " at (" + x + "," + y + ")";
+    }
+}
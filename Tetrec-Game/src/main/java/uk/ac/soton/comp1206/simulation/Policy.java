@@ -0,0 +1,50 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.GameEngine;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Policy plays a game of TetrECS without a player: on every turn it looks at the engine and picks a move.
+ * <p>
+ * A policy is shared by every game of a batch and by every thread, so it must not keep state between calls. Anything
+ * random must come from the random source it is given, which is seeded for each game, so a game can be replayed from
+ * its seed.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+@FunctionalInterface
+public interface Policy {
+
+    /**
+     * Pick the next move
+     *
+     * @param engine the game to move in, which must not be changed
+     * @param random the random source of this game
+     * @return the move to make, or null to wait for the timer to run out
+     */
+    Move choose(GameEngine engine, SplittableRandom random);
+
+    /**
+     * Find a policy by name: "random", "greedy", or the class name of a Policy with a public no argument constructor
+     *
+     * @param name the name of the policy
+     * @return the policy
+     * @throws IllegalArgumentException if there is no such policy
+     */
+    static Policy forName(String name) {
+        switch (name) {
+            case "random":
+                return new RandomPolicy();
+            case "greedy":
+                return new GreedyPolicy();
+            default:
+                try {
+                    return Class.forName(name).asSubclass(Policy.class).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("No such policy: " + name, e);
+                }
+        }
+    }
+}
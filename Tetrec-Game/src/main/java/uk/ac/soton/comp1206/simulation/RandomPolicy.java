@@ -0,0 +1,84 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.BlockVisitor;
+import uk.ac.soton.comp1206.game.GameEngine;
+import uk.ac.soton.comp1206.game.PieceShapes;
+import uk.ac.soton.comp1206.game.PlacementMap;
+
+import java.util.SplittableRandom;
+
+/**
+ * The RandomPolicy picks one of the legal moves of either held piece, every legal move being equally likely.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class RandomPolicy implements Policy {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Move choose(GameEngine engine, SplittableRandom random) {
+        PlacementMap next = engine.getGrid().legalPlacements(engine.getNextPiece());
+        PlacementMap following = engine.getGrid().legalPlacements(engine.getFollowingPieces());
+        int total = next.total() + following.total();
+        if (total == 0) {
+            return null;
+        }
+
+        // pick the nth legal move, counting through the next piece and then the following piece
+        int pick = random.nextInt(total);
+        boolean swap = pick >= next.total();
+        PlacementMap placements = swap ? following : next;
+        if (swap) {
+            pick -= next.total();
+        }
+        for (int rotation = 0; rotation < PieceShapes.ROTATIONS; rotation++) {
+            if (pick < placements.count(rotation)) {
+                Finder finder = new Finder(pick);
+                placements.forEach(rotation, finder);
+                return new Move(swap, rotation, finder.x, finder.y);
+            }
+            pick -= placements.count(rotation);
+        }
+        // the counts always add up to the total
+        throw new IllegalStateException("Placement counts do not add up");
+    }
+
+    /**
+     * Finds the position of the nth legal placement of a rotation
+     */
+    private static final class Finder implements BlockVisitor {
+
+        /**
+         * The number of placements still to skip
+         */
+        private int remaining;
+
+        /**
+         * The position found
+         */
+        private int x, y;
+
+        /**
+         * Create a finder for the nth placement
+         *
+         * @param n the index of the placement, from 0
+         */
+        Finder(int n) {
+            this.remaining = n;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void visit(int x, int y) {
+            if (remaining-- == 0) {
+                this.x = x;
+                this.y = y;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package uk.ac.soton.comp1206.simulation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The SimulationResults hold the outcome of every game of a batch and write them out as CSV or JSON, either as a
+ * summary of each measurement or game by game.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class SimulationResults {
+
+    /**
+     * The seed of every game
+     */
+    final long[] seeds;
+
+    /**
+     * The final score of every game
+     */
+    final long[] scores;
+
+    /**
+     * The final level of every game
+     */
+    final long[] levels;
+
+    /**
+     * The number of pieces placed in every game
+     */
+    final long[] moves;
+
+    /**
+     * The game time every game lasted, in milliseconds, made up of the think time before every move and the timers
+     * that ran out
+     */
+    final long[] times;
+
+    /**
+     * Set for every game stopped at the move limit before it ended
+     */
+    final boolean[] truncated;
+
+    /**
+     * How long the batch took, in nanoseconds
+     */
+    long elapsedNanos;
+
+    /**
+     * Create room for the results of a batch
+     *
+     * @param games the number of games
+     */
+    SimulationResults(int games) {
+        this.seeds = new long[games];
+        this.scores = new long[games];
+        this.levels = new long[games];
+        this.moves = new long[games];
+        this.times = new long[games];
+        this.truncated = new boolean[games];
+    }
+
+    /**
+     * Summarise every measurement
+     *
+     * @return the distributions of the score, level, moves and game time
+     */
+    public List<Distribution> getDistributions() {
+        return List.of(
+                new Distribution("score", scores),
+                new Distribution("level", levels),
+                new Distribution("moves", moves),
+                new Distribution("timeMillis", times));
+    }
+
+    /**
+     * Get the number of games
+     *
+     * @return the number of games
+     */
+    public int getGames() {
+        return seeds.length;
+    }
+
+    /**
+     * Get the number of games stopped at the move limit
+     *
+     * @return the number of truncated games
+     */
+    public int getTruncatedGames() {
+        int count = 0;
+        for (boolean stopped : truncated) {
+            if (stopped) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get how long the batch took
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Write the results as CSV
+     *
+     * @param out     where to write
+     * @param perGame true for a row per game, false for a row per measurement
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Appendable out, boolean perGame) throws IOException {
+        if (perGame) {
+            out.append("game,seed,score,level,moves,timeMillis,truncated\n");
+            for (int game = 0; game < seeds.length; game++) {
+                out.append(game + "," + seeds[game] + "," + scores[game] + "," + levels[game] + "," + moves[game]
+                        + "," + times[game] + "," + truncated[game] + "\n");
+            }
+            return;
+        }
+
+        out.append("metric,count,mean,stddev,min");
+        for (int percent : Distribution.PERCENTILES) {
+            out.append(",p").append(String.valueOf(percent));
+        }
+        out.append(",max\n");
+        for (Distribution distribution : getDistributions()) {
+            out.append(distribution.getName()).append(',')
+                    .append(String.valueOf(distribution.getCount())).append(',')
+                    .append(format(distribution.getMean())).append(',')
+                    .append(format(distribution.getStandardDeviation())).append(',')
+                    .append(String.valueOf(distribution.getMin()));
+            for (int percent : Distribution.PERCENTILES) {
+                out.append(',').append(String.valueOf(distribution.percentile(percent)));
+            }
+            out.append(',').append(String.valueOf(distribution.getMax())).append('\n');
+        }
+    }
+
+    /**
+     * Write the results as a JSON object
+     *
+     * @param out     where to write
+     * @param perGame true to include every game as well as the summary
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Appendable out, boolean perGame) throws IOException {
+        out.append("{\n  \"games\": ").append(String.valueOf(getGames()))
+                .append(",\n  \"truncated\": ").append(String.valueOf(getTruncatedGames()))
+                .append(",\n  \"elapsedMillis\": ").append(String.valueOf(elapsedNanos / 1_000_000))
+                .append(",\n  \"metrics\": {");
+        List<Distribution> distributions = getDistributions();
+        for (int i = 0; i < distributions.size(); i++) {
+            Distribution distribution = distributions.get(i);
+            out.append(i == 0 ? "\n" : ",\n")
+                    .append("    \"").append(distribution.getName()).append("\": {")
+                    .append("\"count\": ").append(String.valueOf(distribution.getCount()))
+                    .append(", \"mean\": ").append(format(distribution.getMean()))
+                    .append(", \"stddev\": ").append(format(distribution.getStandardDeviation()))
+                    .append(", \"min\": ").append(String.valueOf(distribution.getMin()));
+            for (int percent : Distribution.PERCENTILES) {
+                out.append(", \"p").append(String.valueOf(percent)).append("\": ")
+                        .append(String.valueOf(distribution.percentile(percent)));
+            }
+            out.append(", \"max\": ").append(String.valueOf(distribution.getMax())).append('}');
+        }
+        out.append("\n  }");
+
+        if (perGame) {
+            out.append(",\n  \"results\": [");
+            for (int game = 0; game < seeds.length; game++) {
+                out.append(game == 0 ? "\n" : ",\n")
+                        .append("    {\"game\": ").append(String.valueOf(game))
+                        .append(", \"seed\": ").append(String.valueOf(seeds[game]))
+                        .append(", \"score\": ").append(String.valueOf(scores[game]))
+                        .append(", \"level\": ").append(String.valueOf(levels[game]))
+                        .append(", \"moves\": ").append(String.valueOf(moves[game]))
+                        .append(", \"timeMillis\": ").append(String.valueOf(times[game]))
+                        .append(", \"truncated\": ").append(String.valueOf(truncated[game])).append('}');
+            }
+            out.append("\n  ]");
+        }
+        out.append("\n}\n");
+    }
+
+    /**
+     * Format a decimal the same way whatever the locale
+     *
+     * @param value the value
+     * @return the value with three decimal places
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,171 @@
+package uk.ac.soton.comp1206.ui;
+
+import javafx.scene.image.Image;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundPosition;
+import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Assets hands out the images of the game, decoded once and shared by every scene that shows them.
+ * <p>
+ * An image is decoded at the size it is shown at on screen, the size asked for times the current {@link DisplayScale},
+ * rather than at the size of the file, so a large picture shown small does not hold on to all of its pixels. Decoding
+ * happens on the JavaFX background loader threads, so building a scene does not wait for it: a view shows the image as
+ * soon as it is ready.
+ * <p>
+ * The decoded images are kept within a memory budget, 32 MB unless set with -Dtetrecs.imageCacheMB. When the budget is
+ * exceeded the images used least recently are dropped from the cache. Scenes still showing a dropped image keep it;
+ * it is only decoded again if it is asked for again.
+ * <p>
+ * Images are only asked for on the FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class Assets {
+
+    private static final Logger logger = LogManager.getLogger(Assets.class);
+
+    /**
+     * The background shown behind the scenes
+     */
+    public static final String MENU_BACKGROUND = "/images/1.jpg";
+
+    /**
+     * The width of the backgrounds over their height, 1620 x 1080
+     */
+    private static final double BACKGROUND_RATIO = 1.5;
+
+    /**
+     * The most memory the cached images may take, in bytes
+     */
+    private static final long BUDGET = Long.getLong("tetrecs.imageCacheMB", 32) * 1024 * 1024;
+
+    /**
+     * A decoded image and the memory it takes
+     *
+     * @param image the image
+     * @param bytes the memory it takes, in bytes
+     */
+    private record Entry(Image image, long bytes) {
+    }
+
+    /**
+     * The cached images by path and size, least recently used first
+     */
+    private static final Map<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The memory taken by the cached images, in bytes
+     */
+    private static long cachedBytes;
+
+    /**
+     * There are no instances, the images are shared by the whole window
+     */
+    private Assets() {
+    }
+
+    /**
+     * Get an image decoded to be shown at the given size
+     *
+     * @param path          the path of the image in the resources
+     * @param width         the width it is shown at
+     * @param height        the height it is shown at
+     * @param preserveRatio true to fit the image within the size, false to stretch it to the size
+     * @return the shared image, which may still be decoding
+     */
+    public static Image getImage(String path, double width, double height, boolean preserveRatio) {
+        // decode at the pixels it takes up on screen, not at the size it is laid out at
+        double scale = Math.max(1, DisplayScale.getScale());
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+        String key = path + "@" + pixelWidth + "x" + pixelHeight + (preserveRatio ? "" : "!");
+
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            return entry.image();
+        }
+
+        URL url = Assets.class.getResource(path);
+        if (url == null) {
+            throw new IllegalArgumentException("No image at " + path);
+        }
+        logger.info("Decoding {} at {}x{}", path, pixelWidth, pixelHeight);
+        Image image = new Image(url.toExternalForm(), pixelWidth, pixelHeight, preserveRatio, true, true);
+        image.errorProperty().addListener((observable, oldValue, failed) -> {
+            if (failed) {
+                logger.error("Could not decode {}: {}", path, image.getException());
+                remove(key);
+            }
+        });
+
+        // a side of 0 keeps the ratio to the other side, so it is not known yet and the other side is counted twice
+        long bytes = 4L * (pixelWidth > 0 ? pixelWidth : pixelHeight * 2L)
+                * (pixelHeight > 0 ? pixelHeight : pixelWidth * 2L);
+        cache.put(key, new Entry(image, bytes));
+        cachedBytes += bytes;
+        evict();
+        return image;
+    }
+
+    /**
+     * Get a background that covers a region with an image. The image is decoded at the smallest size that covers both
+     * sides of the region: as tall as the region, or taller if a region wider than the picture needs it to be. In the
+     * 4:3 window a landscape background is decoded to the height of the window and overhangs its sides.
+     *
+     * @param path   the path of the image in the resources
+     * @param width  the width of the region
+     * @param height the height of the region
+     * @return the background
+     */
+    public static Background getBackground(String path, double width, double height) {
+        // the scale that covers the region is the larger of the two, a width of 0 keeps the ratio to the height
+        Image image = getImage(path, 0, Math.max(height, width / BACKGROUND_RATIO), true);
+        return new Background(new BackgroundImage(image, BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
+                BackgroundPosition.DEFAULT, new BackgroundSize(100, 100, true, true, false, true)));
+    }
+
+    /**
+     * Get the memory taken by the cached images
+     *
+     * @return the memory in bytes
+     */
+    public static long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Drop an image from the cache
+     *
+     * @param key the path and size of the image
+     */
+    private static void remove(String key) {
+        Entry entry = cache.remove(key);
+        if (entry != null) {
+            cachedBytes -= entry.bytes();
+        }
+    }
+
+    /**
+     * Drop the images used least recently until the cache is within its budget, always keeping the newest one
+     */
+    private static void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = cache.entrySet().iterator();
+        while (cachedBytes > BUDGET && cache.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, Entry> oldest = iterator.next();
+            logger.debug("Dropping {} from the image cache", oldest.getKey());
+            cachedBytes -= oldest.getValue().bytes();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package uk.ac.soton.comp1206.ui;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diagnostics collects the counters shown by the {@link DiagnosticsOverlay}: block paints, running AnimationTimers,
+ * the tasks waiting in the Platform.runLater queue and the time the last scene switch took.
+ * <p>
+ * Paints and the runLater queue are only counted while diagnostics are enabled, so the cost when they are off is a
+ * single check of a flag. Timers start and stop rarely, so they are always counted and the number is right the moment
+ * the overlay is turned on. Diagnostics start enabled with -Dtetrecs.diagnostics=true and are toggled with F3.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class Diagnostics {
+
+    /**
+     * Whether paints and the runLater queue are being counted
+     */
+    private static volatile boolean enabled = Boolean.getBoolean("tetrecs.diagnostics");
+
+    /**
+     * The number of blocks painted since diagnostics were enabled, only changed on the FX thread
+     */
+    private static long paints;
+
+    /**
+     * The number of AnimationTimers running
+     */
+    private static final AtomicInteger liveTimers = new AtomicInteger();
+
+    /**
+     * The number of counted tasks waiting in the runLater queue
+     */
+    private static final AtomicInteger runLaterDepth = new AtomicInteger();
+
+    /**
+     * How long the last scene switch took, in milliseconds, or -1 before the first one
+     */
+    private static volatile long lastSceneSwitch = -1;
+
+    /**
+     * There are no instances, the counters are shared by the whole window
+     */
+    private Diagnostics() {
+    }
+
+    /**
+     * Check whether diagnostics are enabled
+     *
+     * @return true if they are
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn the counting of paints and the runLater queue on or off
+     *
+     * @param enabled true to count
+     */
+    public static void setEnabled(boolean enabled) {
+        Diagnostics.enabled = enabled;
+    }
+
+    /**
+     * Count a block being painted. Called on the FX thread.
+     */
+    public static void countPaint() {
+        if (enabled) {
+            paints++;
+        }
+    }
+
+    /**
+     * Get the number of blocks painted while diagnostics were enabled
+     *
+     * @return the number of paints
+     */
+    public static long getPaints() {
+        return paints;
+    }
+
+    /**
+     * Count an AnimationTimer starting
+     */
+    public static void timerStarted() {
+        liveTimers.incrementAndGet();
+    }
+
+    /**
+     * Count an AnimationTimer stopping
+     */
+    public static void timerStopped() {
+        liveTimers.decrementAndGet();
+    }
+
+    /**
+     * Get the number of AnimationTimers running
+     *
+     * @return the number of timers
+     */
+    public static int getLiveTimers() {
+        return liveTimers.get();
+    }
+
+    /**
+     * Run a task on the FX thread with Platform.runLater, counting it while it waits if diagnostics are enabled
+     *
+     * @param task the task
+     */
+    public static void runLater(Runnable task) {
+        if (!enabled) {
+            Platform.runLater(task);
+            return;
+        }
+        runLaterDepth.incrementAndGet();
+        Platform.runLater(() -> {
+            runLaterDepth.decrementAndGet();
+            task.run();
+        });
+    }
+
+    /**
+     * Get the number of counted tasks waiting in the runLater queue
+     *
+     * @return the queue depth
+     */
+    public static int getRunLaterDepth() {
+        return runLaterDepth.get();
+    }
+
+    /**
+     * Record how long a scene switch took
+     *
+     * @param millis the time in milliseconds
+     */
+    public static void sceneSwitched(long millis) {
+        lastSceneSwitch = millis;
+    }
+
+    /**
+     * Get how long the last scene switch took
+     *
+     * @return the time in milliseconds, or -1 before the first switch
+     */
+    public static long getLastSceneSwitch() {
+        return lastSceneSwitch;
+    }
+}
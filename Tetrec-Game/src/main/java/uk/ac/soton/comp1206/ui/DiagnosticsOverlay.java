@@ -0,0 +1,286 @@
+package uk.ac.soton.comp1206.ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * The DiagnosticsOverlay shows how well the window is rendering, in the corner of the current scene: frames per second,
+ * how long the pulses take, blocks painted per frame, running AnimationTimers, the depth of the runLater queue, how
+ * fast memory is being allocated and how long the last scene switch took.
+ * <p>
+ * Pulse time is measured from the animation phase of a pulse to the end of its layout, which covers the animations,
+ * event handlers, CSS and layout run on the FX thread. The overlay only exists and only listens to pulses while it is
+ * shown, so it costs nothing when it is off.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class DiagnosticsOverlay extends Label {
+
+    private static final Logger logger = LogManager.getLogger(DiagnosticsOverlay.class);
+
+    /**
+     * The number of pulses the percentiles are taken over
+     */
+    private static final int WINDOW = 240;
+
+    /**
+     * How often the numbers are refreshed, in nanoseconds
+     */
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    /**
+     * Reads how much memory threads have allocated, or null if the JVM cannot tell
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    /**
+     * The durations of the most recent pulses, in nanoseconds
+     */
+    private final long[] pulses = new long[WINDOW];
+
+    /**
+     * A copy of the durations, sorted for the percentiles
+     */
+    private final long[] sorted = new long[WINDOW];
+
+    /**
+     * The number of pulses recorded, up to the window
+     */
+    private int pulseCount;
+
+    /**
+     * The position the next pulse is recorded at
+     */
+    private int pulseIndex;
+
+    /**
+     * The time the current pulse started, or 0 if it was not seen
+     */
+    private long pulseStart;
+
+    /**
+     * The time of the last refresh
+     */
+    private long lastRefresh;
+
+    /**
+     * The number of frames since the last refresh
+     */
+    private int frames;
+
+    /**
+     * The number of paints at the last refresh
+     */
+    private long lastPaints;
+
+    /**
+     * The memory allocated by all threads at the last refresh
+     */
+    private long lastAllocated = -1;
+
+    /**
+     * The memory allocated by the FX thread at the last refresh
+     */
+    private long lastFxAllocated = -1;
+
+    /**
+     * The scene the overlay is listening to
+     */
+    private Scene scene;
+
+    /**
+     * Records the end of every pulse
+     */
+    private final Runnable pulseEnded = this::pulseEnded;
+
+    /**
+     * Marks the start of every pulse and refreshes the numbers
+     */
+    private final AnimationTimer sampler = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pulseStart = System.nanoTime();
+            frames++;
+            if (now - lastRefresh >= REFRESH_NANOS) {
+                refresh(now);
+            }
+        }
+    };
+
+    /**
+     * Create a new overlay
+     */
+    public DiagnosticsOverlay() {
+        getStyleClass().add("diagnostics");
+        setMouseTransparent(true);
+        setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
+    }
+
+    /**
+     * Show the overlay on top of a scene, taking it off the scene it was on
+     *
+     * @param newScene the scene, whose root has to be a Pane
+     */
+    public void attach(Scene newScene) {
+        detach();
+        if (!(newScene.getRoot() instanceof Pane)) {
+            logger.warn("Cannot show diagnostics over a {}", newScene.getRoot().getClass().getSimpleName());
+            return;
+        }
+        scene = newScene;
+        ((Pane) scene.getRoot()).getChildren().add(this);
+        scene.addPostLayoutPulseListener(pulseEnded);
+
+        // start counting afresh
+        pulseCount = 0;
+        pulseIndex = 0;
+        pulseStart = 0;
+        frames = 0;
+        lastRefresh = System.nanoTime();
+        lastPaints = Diagnostics.getPaints();
+        lastAllocated = totalAllocated();
+        lastFxAllocated = fxAllocated();
+        sampler.start();
+        Diagnostics.timerStarted();
+    }
+
+    /**
+     * Take the overlay off its scene and stop measuring
+     */
+    public void detach() {
+        if (scene == null) {
+            return;
+        }
+        sampler.stop();
+        Diagnostics.timerStopped();
+        scene.removePostLayoutPulseListener(pulseEnded);
+        if (getParent() instanceof Pane) {
+            ((Pane) getParent()).getChildren().remove(this);
+        }
+        scene = null;
+    }
+
+    /**
+     * Record the duration of the pulse that just finished its layout
+     */
+    private void pulseEnded() {
+        if (pulseStart == 0) {
+            // a pulse without animations, which the sampler did not see start
+            return;
+        }
+        pulses[pulseIndex] = System.nanoTime() - pulseStart;
+        pulseIndex = (pulseIndex + 1) % WINDOW;
+        pulseCount = Math.min(pulseCount + 1, WINDOW);
+        pulseStart = 0;
+    }
+
+    /**
+     * Work out the numbers since the last refresh and show them
+     *
+     * @param now the time of the current pulse
+     */
+    private void refresh(long now) {
+        double seconds = (now - lastRefresh) / 1_000_000_000.0;
+        long paints = Diagnostics.getPaints();
+        long allocated = totalAllocated();
+        long fxAllocated = fxAllocated();
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("FPS %.1f%n", frames / seconds));
+        if (pulseCount > 0) {
+            System.arraycopy(pulses, 0, sorted, 0, pulseCount);
+            Arrays.sort(sorted, 0, pulseCount);
+            text.append(String.format("pulse p50 %.2f  p95 %.2f  p99 %.2f  max %.2f ms%n",
+                    percentile(50), percentile(95), percentile(99), sorted[pulseCount - 1] / 1_000_000.0));
+        }
+        text.append(String.format("paints/frame %.1f%n", frames == 0 ? 0.0 : (double) (paints - lastPaints) / frames));
+        text.append(String.format("timers %d  runLater %d%n", Diagnostics.getLiveTimers(), Diagnostics.getRunLaterDepth()));
+        if (Diagnostics.getLastSceneSwitch() >= 0) {
+            text.append(String.format("scene switch %d ms%n", Diagnostics.getLastSceneSwitch()));
+        }
+        if (allocated >= 0) {
+            // a thread that ended takes its allocations with it, so the total can go down
+            text.append(String.format("alloc %.1f MB/s  (FX %.1f MB/s)",
+                    Math.max(0, allocated - lastAllocated) / seconds / 1_048_576,
+                    (fxAllocated - lastFxAllocated) / seconds / 1_048_576));
+        } else {
+            text.append("alloc n/a");
+        }
+        setText(text.toString());
+        // stay on top of anything the scene added since
+        toFront();
+
+        lastRefresh = now;
+        frames = 0;
+        lastPaints = paints;
+        lastAllocated = allocated;
+        lastFxAllocated = fxAllocated;
+    }
+
+    /**
+     * Get a percentile of the recorded pulse durations, by nearest rank
+     *
+     * @param percent the percentile
+     * @return the duration in milliseconds
+     */
+    private double percentile(int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * pulseCount);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * Get the memory allocated so far by all threads that are still alive
+     *
+     * @return the bytes, or -1 if the JVM cannot tell
+     */
+    private static long totalAllocated() {
+        if (THREADS == null) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            // -1 for a thread that ended while being read
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the memory allocated by the FX thread so far. Called on the FX thread.
+     *
+     * @return the bytes, or -1 if the JVM cannot tell
+     */
+    private static long fxAllocated() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Find the bean that reads allocated memory, if the JVM has one that can
+     *
+     * @return the bean, or null
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                var bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (bean.isThreadAllocatedMemorySupported()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                    return bean;
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            logger.info("Allocation rate not available: {}", e.getMessage());
+        }
+        return null;
+    }
+}
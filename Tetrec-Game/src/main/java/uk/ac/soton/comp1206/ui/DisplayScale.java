@@ -0,0 +1,74 @@
+package uk.ac.soton.comp1206.ui;
+
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+
+/**
+ * The DisplayScale holds the scale the {@link GamePane} currently draws the game at, so components that render their
+ * own pixels can render them at the size they take up on screen.
+ * <p>
+ * In crisp mode, set with -Dtetrecs.crisp=true, the board is drawn at the resolution of the screen instead of being
+ * drawn at the base resolution and then scaled, and the game is placed on whole pixels so it is never blurred by a
+ * half pixel offset.
+ * <p>
+ * The scale is only changed and read on the FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public final class DisplayScale {
+
+    /**
+     * Whether boards are drawn at the resolution of the screen
+     */
+    private static final boolean CRISP = Boolean.getBoolean("tetrecs.crisp");
+
+    /**
+     * The current scale
+     */
+    private static final ReadOnlyDoubleWrapper scale = new ReadOnlyDoubleWrapper(1);
+
+    /**
+     * There are no instances, the scale is shared by the whole window
+     */
+    private DisplayScale() {
+    }
+
+    /**
+     * Get the scale the game is drawn at
+     *
+     * @return the scale, 1 at the base resolution
+     */
+    public static double getScale() {
+        return scale.get();
+    }
+
+    /**
+     * Get the scale as a property, to be told when it changes
+     *
+     * @return the property
+     */
+    public static ReadOnlyDoubleProperty scaleProperty() {
+        return scale.getReadOnlyProperty();
+    }
+
+    /**
+     * Check whether boards are drawn at the resolution of the screen
+     *
+     * @return true in crisp mode
+     */
+    public static boolean isCrisp() {
+        return CRISP;
+    }
+
+    /**
+     * Set the scale the game is drawn at. Only the GamePane sets the scale.
+     *
+     * @param newScale the scale
+     */
+    static void setScale(double newScale) {
+        if (newScale > 0) {
+            scale.set(newScale);
+        }
+    }
+}
@@ -17,6 +17,10 @@ import org.apache.logging.log4j.Logger;
  * It uses the width and height given which should match the main window size. This will be the base drawing resolution,
  * but will be scaled up or down as the window is resized.
  *
+ * The transformations are created once and only recalculated when the size of the pane changes, so a layout pass that
+ * does not resize the window leaves the scene graph under the pane untouched. The scale is shared through
+ * {@link DisplayScale} for components that render their own pixels.
+ *
  * You should not need to modify this class
  *
  * @author abdullamaghrabi
@@ -31,6 +35,26 @@ public class GamePane extends StackPane {
     private double scalar = 1;
     private final boolean autoScale = true;
 
+    /**
+     * The scaling applied to everything inside the pane
+     */
+    private final Scale scale = new Scale(1, 1, 0, 0);
+
+    /**
+     * The padding that keeps the scaled content centred
+     */
+    private final Translate translate = new Translate();
+
+    /**
+     * The width the transformations were last calculated for
+     */
+    private double scaledWidth = -1;
+
+    /**
+     * The height the transformations were last calculated for
+     */
+    private double scaledHeight = -1;
+
     /**
      * Create a new scalable GamePane with the given drawing width and height.
      *
@@ -44,6 +68,9 @@ public class GamePane extends StackPane {
 
         getStyleClass().add("gamepane");
         setAlignment(Pos.TOP_LEFT);
+
+        // the same transformations are updated on every resize rather than replaced
+        getTransforms().setAll(translate, scale);
     }
 
     /**
@@ -53,13 +80,15 @@ public class GamePane extends StackPane {
      */
     protected void setScalar(double scalar) {
         this.scalar = scalar;
+        // components drawing their own pixels render them again at the new size
+        DisplayScale.setScale(scalar);
     }
 
     /**
      * {@inheritDoc}
      *
      * Use a Graphics Transformation to scale everything inside this pane. Padding is added to the edges to maintain
-     * the correct aspect ratio and keep the display centred.
+     * the correct aspect ratio and keep the display centred. Nothing is recalculated unless the size has changed.
      */
     @Override
     public void layoutChildren() {
@@ -69,9 +98,18 @@ public class GamePane extends StackPane {
             return;
         }
 
+        //Get the parent width and height
+        var parentWidth = getWidth();
+        var parentHeight = getHeight();
+        if (parentWidth == scaledWidth && parentHeight == scaledHeight) {
+            return;
+        }
+        scaledWidth = parentWidth;
+        scaledHeight = parentHeight;
+
         //Work out the scale factor height and width
-        var scaleFactorHeight = getHeight() / height;
-        var scaleFactorWidth = getWidth() / width;
+        var scaleFactorHeight = parentHeight / height;
+        var scaleFactorWidth = parentWidth / width;
 
         //Work out whether to scale by width or height
         if (scaleFactorHeight > scaleFactorWidth) {
@@ -80,22 +118,21 @@ public class GamePane extends StackPane {
             setScalar(scaleFactorHeight);
         }
 
-        //Set up the scale
-        Scale scale = new Scale(scalar,scalar);
-
-        //Get the parent width and height
-        var parentWidth = getWidth();
-        var parentHeight = getHeight();
-
         //Get the padding needed on the top and left
         var paddingLeft = (parentWidth - (width * scalar)) / 2.0;
         var paddingTop = (parentHeight - (height * scalar)) / 2.0;
+        if (DisplayScale.isCrisp()) {
+            // start on a whole pixel so nothing is blurred across two
+            paddingLeft = Math.floor(paddingLeft);
+            paddingTop = Math.floor(paddingTop);
+        }
 
-        //Perform the transformation
-        Translate translate = new Translate(paddingLeft, paddingTop);
-        scale.setPivotX(0);
-        scale.setPivotY(0);
-        getTransforms().setAll(translate, scale);
+        //Update the transformation
+        scale.setX(scalar);
+        scale.setY(scalar);
+        translate.setX(paddingLeft);
+        translate.setY(paddingTop);
+        logger.debug("Scaled to {} for {} x {}", scalar, parentWidth, parentHeight);
     }
 
 }
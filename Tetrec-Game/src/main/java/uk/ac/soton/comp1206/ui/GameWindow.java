@@ -1,8 +1,9 @@
 package uk.ac.soton.comp1206.ui;
 
-import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -14,6 +15,8 @@ import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.scene.*;
 
+import java.util.function.Supplier;
+
 /**
  * The GameWindow is the single window for the game where everything takes place. To move between screens in the game,
  * we simply change the scene.
@@ -38,6 +41,21 @@ public class GameWindow {
 
     final Communicator communicator;
 
+    /**
+     * The diagnostics shown over the current scene, created the first time they are turned on
+     */
+    private DiagnosticsOverlay diagnostics;
+
+    /**
+     * The scenes that are built and ready to be shown
+     */
+    private final ScenePool scenePool = new ScenePool(this::buildScene);
+
+    /**
+     * The time the scene being switched to was asked for
+     */
+    private long switchStart;
+
 
     /**
      * Create a new GameWindow attached to the given stage with the specified width and height
@@ -89,7 +107,7 @@ public class GameWindow {
      * Display the main menu
      */
     public void startMenu() {
-        loadScene(new MenuScene(this));
+        switchTo(MenuScene.class, () -> new MenuScene(this));
 
     }
 
@@ -97,7 +115,7 @@ public class GameWindow {
      * Display the single player challenge
      */
     public void startChallenge() {
-        loadScene(new ChallengeScene(this));
+        switchTo(ChallengeScene.class, () -> new ChallengeScene(this));
     }
 
 
@@ -105,7 +123,7 @@ public class GameWindow {
      * Display the instructions
      */
     public void startInstruction() {
-        loadScene(new InstructionsScene(this));
+        switchTo(InstructionsScene.class, () -> new InstructionsScene(this));
 
     }
 
@@ -139,22 +157,122 @@ public class GameWindow {
     }
 
     /**
-     * Load a given scene which extends BaseScene and switch over.
+     * Switch to a scene of the given type, using the ready one if there is one
+     *
+     * @param type    the type of scene
+     * @param factory creates a new scene of the type
+     * @param <S>     the type of scene
+     */
+    private <S extends BaseScene> void switchTo(Class<S> type, Supplier<S> factory) {
+        switchStart = System.nanoTime();
+        loadScene(scenePool.take(type, factory));
+    }
+
+    /**
+     * Load a given scene which extends BaseScene and switch over. A scene that was already built, ahead of time or when
+     * it was last shown, keeps its layout and JavaFX scene and is only initialised again.
      *
      * @param newScene new scene to load
      */
     public void loadScene(BaseScene newScene) {
+        if (switchStart == 0) {
+            switchStart = System.nanoTime();
+        }
+
         //Cleanup remains of the previous scene
         cleanup();
-
-        //Create the new scene and set it up
-        newScene.build();
+        if (currentScene != null && currentScene != newScene) {
+            scenePool.release(currentScene);
+        }
+
+        //Create the new scene and set it up, unless it is ready
+        String how = "built";
+        if (newScene.getScene() == null) {
+            buildScene(newScene);
+        } else {
+            how = "ready";
+        }
         currentScene = newScene;
-        scene = newScene.setScene();
+        scene = newScene.getScene();
         stage.setScene(scene);
 
+        if (Diagnostics.isEnabled()) {
+            showDiagnostics();
+        }
+        reportSwitch(newScene, how);
+
         //Initialise the scene when ready
-        Platform.runLater(() -> currentScene.initialise());
+        Diagnostics.runLater(() -> {
+            currentScene.initialise();
+            // the game is the most likely place to go from the menu, so have it ready before it is asked for
+            if (currentScene instanceof MenuScene) {
+                scenePool.prebuild(ChallengeScene.class, () -> new ChallengeScene(this));
+            }
+        });
+    }
+
+    /**
+     * Build the layout of a scene and its JavaFX scene
+     *
+     * @param newScene the scene
+     */
+    private void buildScene(BaseScene newScene) {
+        newScene.build();
+        Scene built = newScene.setScene();
+        // F3 shows and hides the diagnostics on every scene
+        built.addEventFilter(KeyEvent.KEY_PRESSED, this::toggleDiagnostics);
+    }
+
+    /**
+     * Log how long a scene switch took, from asking for the scene to the end of the first layout of the scene shown
+     *
+     * @param newScene the scene switched to
+     * @param how      whether the scene was built for the switch or was ready
+     */
+    private void reportSwitch(BaseScene newScene, String how) {
+        long start = switchStart;
+        switchStart = 0;
+        Scene shown = newScene.getScene();
+        shown.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                shown.removePostLayoutPulseListener(this);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                Diagnostics.sceneSwitched(millis);
+                logger.info("Switched to {} in {} ms ({})", newScene.getClass().getSimpleName(), millis, how);
+            }
+        });
+    }
+
+    /**
+     * Show or hide the diagnostics when F3 is pressed
+     *
+     * @param event the key event
+     */
+    private void toggleDiagnostics(KeyEvent event) {
+        if (event.getCode() != KeyCode.F3) {
+            return;
+        }
+        event.consume();
+        if (Diagnostics.isEnabled()) {
+            logger.info("Hiding diagnostics");
+            Diagnostics.setEnabled(false);
+            diagnostics.detach();
+        } else {
+            logger.info("Showing diagnostics");
+            Diagnostics.setEnabled(true);
+            showDiagnostics();
+        }
+    }
+
+    /**
+     * Show the diagnostics over the current scene
+     */
+    private void showDiagnostics() {
+        if (diagnostics == null) {
+            diagnostics = new DiagnosticsOverlay();
+        }
+        diagnostics.attach(scene);
     }
 
     /**
@@ -0,0 +1,102 @@
+package uk.ac.soton.comp1206.ui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.scene.BaseScene;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The ScenePool keeps scenes that are ready to be shown, so switching to them does not pay for building them.
+ * <p>
+ * A scene gets into the pool in one of two ways. A scene the player is likely to go to next can be built ahead of time,
+ * while the FX thread is idle between pulses, before it is asked for. A scene that says it is reusable is kept when it
+ * is taken off the window, reset, and shown again the next time instead of a new one. Either way the scene keeps its
+ * JavaFX Scene, with its CSS already applied and its images already decoded.
+ * <p>
+ * There is at most one ready scene of every type, and the pool is only used on the FX thread.
+ *
+ * @author abdullamaghrabi
+ * @version $Id: $Id
+ */
+public class ScenePool {
+
+    private static final Logger logger = LogManager.getLogger(ScenePool.class);
+
+    /**
+     * The ready scenes of every type
+     */
+    private final Map<Class<?>, BaseScene> ready = new HashMap<>();
+
+    /**
+     * Builds a scene and its JavaFX Scene, the same way the window does for a new scene
+     */
+    private final Consumer<BaseScene> builder;
+
+    /**
+     * Create a new pool
+     *
+     * @param builder builds a scene and its JavaFX Scene
+     */
+    public ScenePool(Consumer<BaseScene> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Take the ready scene of a type, or create a new one that still has to be built
+     *
+     * @param type    the type of scene
+     * @param factory creates a new scene of the type
+     * @param <S>     the type of scene
+     * @return the scene
+     */
+    public <S extends BaseScene> S take(Class<S> type, Supplier<S> factory) {
+        BaseScene scene = ready.remove(type);
+        if (scene != null) {
+            logger.debug("Using the ready {}", type.getSimpleName());
+            return type.cast(scene);
+        }
+        return factory.get();
+    }
+
+    /**
+     * Build a scene ahead of time once the FX thread is idle, unless one of its type is already ready
+     *
+     * @param type    the type of scene
+     * @param factory creates a new scene of the type
+     * @param <S>     the type of scene
+     */
+    public <S extends BaseScene> void prebuild(Class<S> type, Supplier<S> factory) {
+        if (ready.containsKey(type)) {
+            return;
+        }
+        // queued behind the current pulse and whatever the shown scene set up, so the switch it prepares is not slowed
+        Diagnostics.runLater(() -> {
+            if (ready.containsKey(type)) {
+                return;
+            }
+            long start = System.nanoTime();
+            S scene = factory.get();
+            builder.accept(scene);
+            ready.put(type, scene);
+            logger.info("Built {} ahead of time in {} ms", type.getSimpleName(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    /**
+     * Hand back a scene that was taken off the window. A reusable scene is reset and kept for next time.
+     *
+     * @param scene the scene
+     */
+    public void release(BaseScene scene) {
+        if (!scene.isReusable() || ready.containsKey(scene.getClass())) {
+            return;
+        }
+        scene.reset();
+        ready.put(scene.getClass(), scene);
+        logger.debug("Keeping {} for reuse", scene.getClass().getSimpleName());
+    }
+}